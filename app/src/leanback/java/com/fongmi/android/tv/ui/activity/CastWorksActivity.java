@@ -23,6 +23,7 @@ import com.fongmi.android.tv.bean.Result;
 import com.fongmi.android.tv.bean.Site;
 import com.fongmi.android.tv.bean.Vod;
 import com.fongmi.android.tv.databinding.ActivityCastWorksBinding;
+import com.fongmi.android.tv.model.DetailPrefetcher;
 import com.fongmi.android.tv.model.SiteViewModel;
 import com.fongmi.android.tv.ui.base.BaseActivity;
 import com.fongmi.android.tv.ui.presenter.VodPresenter;
@@ -165,6 +166,11 @@ public class CastWorksActivity extends BaseActivity implements VodPresenter.OnCl
     public boolean onLongClick(Vod item) {
         return false;
     }
+
+    @Override
+    public void onItemFocus(Vod item, boolean focused) {
+        DetailPrefetcher.get().focus(item.getSiteKey(), item, focused);
+    }
     
     @Override
     public boolean dispatchKeyEvent(KeyEvent event) {
@@ -22,18 +22,27 @@ import androidx.viewpager.widget.ViewPager;
 import com.fongmi.android.tv.App;
 import com.fongmi.android.tv.R;
 import com.fongmi.android.tv.Setting;
+import com.fongmi.android.tv.api.SiteRanker;
 import com.fongmi.android.tv.api.config.VodConfig;
+import com.fongmi.android.tv.bean.Catalog;
 import com.fongmi.android.tv.bean.Collect;
 import com.fongmi.android.tv.bean.Site;
+import com.fongmi.android.tv.bean.Vod;
 import com.fongmi.android.tv.databinding.ActivityCollectBinding;
+import com.fongmi.android.tv.event.RefreshEvent;
 import com.fongmi.android.tv.model.SiteViewModel;
 import com.fongmi.android.tv.ui.base.BaseActivity;
 import com.fongmi.android.tv.ui.fragment.CollectFragment;
 import com.fongmi.android.tv.ui.presenter.CollectPresenter;
 import com.fongmi.android.tv.utils.PauseExecutor;
 import com.fongmi.android.tv.utils.ResUtil;
+import com.fongmi.android.tv.utils.SearchPhase;
+import com.fongmi.android.tv.utils.TitleCluster;
 import com.google.gson.reflect.TypeToken;
 
+import org.greenrobot.eventbus.Subscribe;
+import org.greenrobot.eventbus.ThreadMode;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -43,6 +52,8 @@ public class CollectActivity extends BaseActivity {
     private ArrayObjectAdapter mAdapter;
     private SiteViewModel mViewModel;
     private PauseExecutor mExecutor;
+    private TitleCluster mCluster;
+    private SearchPhase mPhase;
     private List<Site> mSites;
     private View mOldView;
 
@@ -53,7 +64,11 @@ public class CollectActivity extends BaseActivity {
     }
 
     private CollectFragment getFragment() {
-        return (CollectFragment) mBinding.pager.getAdapter().instantiateItem(mBinding.pager, 0);
+        return getFragment(0);
+    }
+
+    private CollectFragment getFragment(int position) {
+        return (CollectFragment) mBinding.pager.getAdapter().instantiateItem(mBinding.pager, position);
     }
 
     private String getKeyword() {
@@ -109,7 +124,10 @@ public class CollectActivity extends BaseActivity {
     private void setViewModel() {
         mViewModel = new ViewModelProvider(this).get(SiteViewModel.class);
         mViewModel.search.observe(this, result -> {
-            getFragment().addVideo(result.getList());
+            List<Vod> items = mCluster.group(result.getList());
+            if (!items.isEmpty()) getFragment().addVideo(items);
+            if (items.size() < result.getList().size()) getFragment().refresh();
+            checkEnough(mCluster.getMatched());
             mAdapter.add(Collect.create(result.getList()));
             mBinding.pager.getAdapter().notifyDataSetChanged();
         });
@@ -122,6 +140,7 @@ public class CollectActivity extends BaseActivity {
     private void setSite() {
         mSites = new ArrayList<>();
         for (Site site : VodConfig.get().getSites()) if (site.isSearchable()) mSites.add(site);
+        SiteRanker.get().sort(mSites);
         Site home = VodConfig.get().getHome();
         if (!mSites.contains(home)) return;
         mSites.remove(home);
@@ -129,12 +148,41 @@ public class CollectActivity extends BaseActivity {
     }
 
     private void search() {
-        mAdapter.add(Collect.all());
+        Collect all = Collect.all();
+        mCluster = new TitleCluster(getKeyword());
+        mAdapter.add(all);
         if (mExecutor != null) stop();
         mBinding.pager.getAdapter().notifyDataSetChanged();
         mExecutor = new PauseExecutor(10);
         mBinding.result.setText(getString(R.string.collect_result, getKeyword()));
-        for (Site site : mSites) mExecutor.execute(() -> search(site));
+        searchLocal(mCluster, getKeyword());
+        mPhase = new SearchPhase(mSites, Setting.getSearchDeadline(), mExecutor, new SearchPhase.Callback() {
+            @Override
+            public void search(Site site) {
+                CollectActivity.this.search(site);
+            }
+
+            @Override
+            public void onFinished() {
+            }
+        });
+        mPhase.start();
+    }
+
+    private void searchLocal(TitleCluster cluster, String keyword) {
+        App.execute(() -> {
+            List<Vod> items = Catalog.search(keyword);
+            if (!items.isEmpty()) App.post(() -> {
+                if (cluster == mCluster) getFragment().addVideo(cluster.group(items));
+            });
+        });
+    }
+
+    private void checkEnough(int matched) {
+        int enough = Setting.getSearchEnough();
+        if (enough <= 0 || matched < enough) return;
+        if (mExecutor != null) mExecutor.getQueue().clear();
+        if (mPhase != null) mPhase.cancel();
     }
 
     private void search(Site site) {
@@ -153,6 +201,7 @@ public class CollectActivity extends BaseActivity {
     }
 
     private void stop() {
+        if (mPhase != null) mPhase.cancel();
         if (mExecutor == null) return;
         mExecutor.shutdownNow();
         mExecutor = null;
@@ -197,6 +246,12 @@ public class CollectActivity extends BaseActivity {
         stop();
     }
 
+    @Subscribe(threadMode = ThreadMode.MAIN)
+    public void onRefreshEvent(RefreshEvent event) {
+        super.onRefreshEvent(event);
+        if (event.getType() == RefreshEvent.Type.IMAGE && mAdapter.size() > 0) getFragment(mBinding.pager.getCurrentItem()).refresh();
+    }
+
     class PageAdapter extends FragmentStatePagerAdapter {
 
         public PageAdapter(@NonNull FragmentManager fm) {
@@ -40,6 +40,7 @@ import com.fongmi.android.tv.event.CastEvent;
 import com.fongmi.android.tv.event.RefreshEvent;
 import com.fongmi.android.tv.event.ServerEvent;
 import com.fongmi.android.tv.impl.Callback;
+import com.fongmi.android.tv.model.DetailPrefetcher;
 import com.fongmi.android.tv.model.SiteViewModel;
 import com.fongmi.android.tv.player.Source;
 import com.fongmi.android.tv.server.Server;
@@ -438,6 +439,11 @@ public class HomeActivity extends BaseActivity implements CustomTitleView.Listen
         return true;
     }
 
+    @Override
+    public void onItemFocus(Vod item, boolean focused) {
+        DetailPrefetcher.get().focus(getHome().getKey(), item, focused);
+    }
+
     @Override
     public void onItemClick(History item) {
         VideoActivity.start(this, item.getSiteKey(), item.getVodId(), item.getVodName(), item.getVodPic());
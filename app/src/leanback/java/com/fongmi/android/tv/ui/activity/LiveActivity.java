@@ -25,6 +25,7 @@ import com.fongmi.android.tv.App;
 import com.fongmi.android.tv.Constant;
 import com.fongmi.android.tv.R;
 import com.fongmi.android.tv.Setting;
+import com.fongmi.android.tv.api.LiveParser;
 import com.fongmi.android.tv.api.config.LiveConfig;
 import com.fongmi.android.tv.bean.Channel;
 import com.fongmi.android.tv.bean.Epg;
@@ -670,6 +671,7 @@ public class LiveActivity extends BaseActivity implements GroupPresenter.OnClick
     @Override
     public void setLive(Live item) {
         if (item.isActivated()) item.getGroups().clear();
+        if (item.isActivated()) LiveParser.refresh(item);
         LiveConfig.get().setHome(item);
         mPlayers.reset();
         mPlayers.stop();
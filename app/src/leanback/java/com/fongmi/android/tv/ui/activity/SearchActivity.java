@@ -16,10 +16,10 @@ import com.fongmi.android.tv.R;
 import com.fongmi.android.tv.Setting;
 import com.fongmi.android.tv.bean.Hot;
 import com.fongmi.android.tv.bean.Site;
-import com.fongmi.android.tv.bean.Suggest;
 import com.fongmi.android.tv.databinding.ActivitySearchBinding;
 import com.fongmi.android.tv.impl.Callback;
 import com.fongmi.android.tv.impl.SiteCallback;
+import com.fongmi.android.tv.model.SuggestService;
 import com.fongmi.android.tv.ui.adapter.RecordAdapter;
 import com.fongmi.android.tv.ui.adapter.WordAdapter;
 import com.fongmi.android.tv.ui.base.BaseActivity;
@@ -28,13 +28,13 @@ import com.fongmi.android.tv.ui.custom.CustomTextListener;
 import com.fongmi.android.tv.ui.custom.SpaceItemDecoration;
 import com.fongmi.android.tv.ui.dialog.SiteDialog;
 import com.fongmi.android.tv.utils.KeyUtil;
+import com.fongmi.android.tv.utils.PinyinTrie;
 import com.fongmi.android.tv.utils.Util;
 import com.github.catvod.net.OkHttp;
 import com.github.catvod.utils.ZhuToPin;
 import com.google.common.net.HttpHeaders;
 
 import java.io.IOException;
-import java.net.URLEncoder;
 import java.util.List;
 
 import okhttp3.Call;
@@ -45,6 +45,7 @@ public class SearchActivity extends BaseActivity implements WordAdapter.OnClickL
 
     private ActivitySearchBinding mBinding;
     private RecordAdapter mRecordAdapter;
+    private SuggestService mSuggest;
     private WordAdapter mWordAdapter;
 
     public static void start(Activity activity) {
@@ -60,6 +61,8 @@ public class SearchActivity extends BaseActivity implements WordAdapter.OnClickL
     protected void initView() {
         CustomKeyboard.init(this, mBinding);
         setRecyclerView();
+        mSuggest = new SuggestService(items -> mWordAdapter.addAll(items));
+        App.execute(PinyinTrie.get()::load);
         getHot();
     }
 
@@ -72,8 +75,12 @@ public class SearchActivity extends BaseActivity implements WordAdapter.OnClickL
         mBinding.keyword.addTextChangedListener(new CustomTextListener() {
             @Override
             public void afterTextChanged(Editable s) {
-                if (s.toString().isEmpty()) getHot();
-                else getSuggest(s.toString());
+                if (s.toString().isEmpty()) {
+                    mSuggest.cancel();
+                    getHot();
+                } else {
+                    getSuggest(s.toString());
+                }
             }
         });
         mBinding.mic.setListener(this, new CustomTextListener() {
@@ -102,27 +109,38 @@ public class SearchActivity extends BaseActivity implements WordAdapter.OnClickL
 
     private void getHot() {
         mBinding.hint.setText(R.string.search_hot);
-        mWordAdapter.addAll(Hot.get(Setting.getHot()));
+        addHot(Hot.get(Setting.getHot()));
+        if (!SuggestService.refreshHot()) return;
         OkHttp.newCall("https://api.web.360kan.com/v1/rank?cat=1", Headers.of(HttpHeaders.REFERER, "https://www.360kan.com/rank/general")).enqueue(new Callback() {
             @Override
             public void onResponse(@NonNull Call call, @NonNull Response response) throws IOException {
-                List<String> items = Hot.get(response.body().string());
-                if (mWordAdapter.getItemCount() > 0) return;
-                App.post(() -> mWordAdapter.addAll(items));
+                boolean success = false;
+                try {
+                    List<String> items = Hot.get(response.body().string());
+                    success = !items.isEmpty();
+                    App.execute(() -> PinyinTrie.get().addAll(items, PinyinTrie.HOT));
+                    if (mWordAdapter.getItemCount() > 0) return;
+                    App.post(() -> mWordAdapter.addAll(items));
+                } finally {
+                    SuggestService.onHot(success);
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                SuggestService.onHot(false);
             }
         });
     }
 
+    private void addHot(List<String> items) {
+        App.execute(() -> PinyinTrie.get().addAll(items, PinyinTrie.HOT));
+        mWordAdapter.addAll(items);
+    }
+
     private void getSuggest(String text) {
         mBinding.hint.setText(R.string.search_suggest);
-        OkHttp.newCall("https://suggest.video.iqiyi.com/?if=mobile&key=" + URLEncoder.encode(ZhuToPin.get(text))).enqueue(new Callback() {
-            @Override
-            public void onResponse(@NonNull Call call, @NonNull Response response) throws IOException {
-                if (mBinding.keyword.getText().toString().trim().isEmpty()) return;
-                List<String> items = Suggest.get(response.body().string());
-                App.post(() -> mWordAdapter.addAll(items));
-            }
-        });
+        mSuggest.request(ZhuToPin.get(text));
     }
 
     @Override
@@ -175,4 +193,10 @@ public class SearchActivity extends BaseActivity implements WordAdapter.OnClickL
         super.onResume();
         mBinding.keyword.requestFocus();
     }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        mSuggest.cancel();
+    }
 }
@@ -59,6 +59,7 @@ import com.fongmi.android.tv.event.ActionEvent;
 import com.fongmi.android.tv.event.ErrorEvent;
 import com.fongmi.android.tv.event.PlayerEvent;
 import com.fongmi.android.tv.event.RefreshEvent;
+import com.fongmi.android.tv.model.EpisodePrefetcher;
 import com.fongmi.android.tv.model.SiteViewModel;
 import com.fongmi.android.tv.player.Players;
 import com.fongmi.android.tv.player.exo.ExoUtil;
@@ -728,6 +729,14 @@ public class VideoActivity extends BaseActivity implements CustomKeyDownVod.List
         else if (notify) Notify.show(mHistory.isRevPlay() ? R.string.error_play_prev : R.string.error_play_next);
     }
 
+    private void preloadNext() {
+        if (mEpisodeAdapter.size() == 0 || mBinding.control.loop.isActivated()) return;
+        int current = getEpisodePosition();
+        int next = mHistory.isRevPlay() ? current - 1 : current + 1;
+        if (next < 0 || next >= mEpisodeAdapter.size()) return;
+        EpisodePrefetcher.get().prepare(getKey(), getFlag().getFlag(), (Episode) mEpisodeAdapter.get(next));
+    }
+
     private void onPrev(boolean notify) {
         int current = getEpisodePosition();
         current = --current < 0 ? 0 : current;
@@ -1043,6 +1052,7 @@ public class VideoActivity extends BaseActivity implements CustomKeyDownVod.List
         mHistory.setPosition(position = mPlayers.getPosition());
         mHistory.setDuration(duration = mPlayers.getDuration());
         if (position >= 0 && duration > 0 && !Setting.isIncognito()) App.execute(() -> mHistory.update());
+        if (EpisodePrefetcher.isTime(position, duration, mHistory.getEnding())) preloadNext();
         if (mHistory.getEnding() > 0 && duration > 0 && mHistory.getEnding() + position >= duration) {
             checkEnded(false);
         }
@@ -1462,6 +1472,7 @@ public class VideoActivity extends BaseActivity implements CustomKeyDownVod.List
         stopSearch();
         mClock.release();
         mPlayers.release();
+        EpisodePrefetcher.get().clear();
         RefreshEvent.history();
         PlaybackService.stop();
         App.removeCallbacks(mR1, mR2, mR3, mR4);
@@ -8,9 +8,20 @@ import com.fongmi.android.tv.bean.Vod;
 
 public abstract class BaseVodHolder extends Presenter.ViewHolder {
 
+    private Vod item;
+
     public BaseVodHolder(View view) {
         super(view);
     }
 
+    public Vod getItem() {
+        return item;
+    }
+
+    public void bind(Vod item) {
+        this.item = item;
+        initView(item);
+    }
+
     public abstract void initView(Vod item);
 }
@@ -12,6 +12,8 @@ public class CustomScroller extends RecyclerView.OnScrollListener {
     private final Callback callback;
     private boolean loading;
     private boolean enable;
+    private int threshold;
+    private int prefetch;
     private int page;
 
     public CustomScroller(Callback callback) {
@@ -20,6 +22,11 @@ public class CustomScroller extends RecyclerView.OnScrollListener {
         this.page = 1;
     }
 
+    @Override
+    public void onScrolled(@NonNull RecyclerView view, int dx, int dy) {
+        checkPrefetch(view);
+    }
+
     @Override
     public void onScrollStateChanged(@NonNull RecyclerView view, int newState) {
         if (isDisable() || isLoading() || newState != RecyclerView.SCROLL_STATE_IDLE) return;
@@ -33,10 +40,29 @@ public class CustomScroller extends RecyclerView.OnScrollListener {
         return lastPosition == view.getLayoutManager().getItemCount() - 1;
     }
 
+    private void checkPrefetch(RecyclerView view) {
+        if (isDisable() || isLoading() || threshold <= 0 || prefetch > page || callback == null) return;
+        if (getRemain(view) > threshold) return;
+        prefetch = page + 1;
+        callback.onPrefetch(String.valueOf(prefetch));
+    }
+
+    private int getRemain(RecyclerView view) {
+        RecyclerView.LayoutManager manager = view.getLayoutManager();
+        if (manager == null || manager.getChildCount() == 0) return Integer.MAX_VALUE;
+        View lastChild = manager.getChildAt(manager.getChildCount() - 1);
+        return manager.getItemCount() - 1 - manager.getPosition(lastChild);
+    }
+
     public void reset() {
+        prefetch = 0;
         page = 1;
     }
 
+    public void setThreshold(int threshold) {
+        this.threshold = threshold;
+    }
+
     public int addPage() {
         return ++page;
     }
@@ -69,5 +95,8 @@ public class CustomScroller extends RecyclerView.OnScrollListener {
 
     public interface Callback {
         void onLoadMore(String page);
+
+        default void onPrefetch(String page) {
+        }
     }
 }
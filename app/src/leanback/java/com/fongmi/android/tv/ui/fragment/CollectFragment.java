@@ -15,10 +15,13 @@ import androidx.viewbinding.ViewBinding;
 
 import com.fongmi.android.tv.Product;
 import com.fongmi.android.tv.R;
+import com.fongmi.android.tv.api.SiteRanker;
+import com.fongmi.android.tv.api.SpiderStats;
 import com.fongmi.android.tv.bean.Collect;
 import com.fongmi.android.tv.bean.Result;
 import com.fongmi.android.tv.bean.Vod;
 import com.fongmi.android.tv.databinding.FragmentVodBinding;
+import com.fongmi.android.tv.model.DetailPrefetcher;
 import com.fongmi.android.tv.model.SiteViewModel;
 import com.fongmi.android.tv.ui.activity.VideoActivity;
 import com.fongmi.android.tv.ui.activity.VodActivity;
@@ -91,6 +94,7 @@ public class CollectFragment extends BaseFragment implements CustomScroller.Call
     @Override
     protected void initData() {
         if (mCollect != null) addVideo(mCollect.getList());
+        if (mCollect != null && !"all".equals(mCollect.getSite().getKey())) mScroller.setThreshold(mViewModel.getThreshold(mCollect.getSite().getKey(), SpiderStats.SEARCH));
     }
 
     private boolean checkLastSize(List<Vod> items) {
@@ -116,6 +120,7 @@ public class CollectFragment extends BaseFragment implements CustomScroller.Call
 
     @Override
     public void onItemClick(Vod item) {
+        SiteRanker.get().click(item.getSiteKey());
         getActivity().setResult(Activity.RESULT_OK);
         if (item.isFolder()) VodActivity.start(getActivity(), item.getSiteKey(), Result.folder(item));
         else VideoActivity.collect(getActivity(), item.getSiteKey(), item.getVodId(), item.getVodName(), item.getVodPic());
@@ -126,6 +131,11 @@ public class CollectFragment extends BaseFragment implements CustomScroller.Call
         return false;
     }
 
+    @Override
+    public void onItemFocus(Vod item, boolean focused) {
+        DetailPrefetcher.get().focus(item.getSiteKey(), item, focused);
+    }
+
     @Override
     public void onLoadMore(String page) {
         if (mCollect == null || "all".equals(mCollect.getSite().getKey())) return;
@@ -133,6 +143,16 @@ public class CollectFragment extends BaseFragment implements CustomScroller.Call
         mScroller.setLoading(true);
     }
 
+    @Override
+    public void onPrefetch(String page) {
+        if (mCollect == null || "all".equals(mCollect.getSite().getKey())) return;
+        mViewModel.prefetchSearch(mCollect.getSite(), getKeyword(), page);
+    }
+
+    public void refresh() {
+        mAdapter.notifyArrayItemRangeChanged(0, mAdapter.size());
+    }
+
     @Override
     public void setUserVisibleHint(boolean isVisibleToUser) {
         super.setUserVisibleHint(isVisibleToUser);
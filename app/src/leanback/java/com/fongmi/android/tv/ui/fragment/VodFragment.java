@@ -19,6 +19,7 @@ import androidx.viewbinding.ViewBinding;
 import com.fongmi.android.tv.App;
 import com.fongmi.android.tv.Product;
 import com.fongmi.android.tv.R;
+import com.fongmi.android.tv.api.SpiderStats;
 import com.fongmi.android.tv.api.config.VodConfig;
 import com.fongmi.android.tv.bean.Filter;
 import com.fongmi.android.tv.bean.Page;
@@ -28,6 +29,7 @@ import com.fongmi.android.tv.bean.Style;
 import com.fongmi.android.tv.bean.Value;
 import com.fongmi.android.tv.bean.Vod;
 import com.fongmi.android.tv.databinding.FragmentVodBinding;
+import com.fongmi.android.tv.model.DetailPrefetcher;
 import com.fongmi.android.tv.model.SiteViewModel;
 import com.fongmi.android.tv.ui.activity.CollectActivity;
 import com.fongmi.android.tv.ui.activity.VideoActivity;
@@ -179,6 +181,7 @@ public class VodFragment extends BaseFragment implements CustomScroller.Callback
         int filterSize = mOpen ? mFilters.size() : 0;
         boolean clear = first && mAdapter.size() > filterSize;
         if (clear) mAdapter.removeItems(filterSize, mAdapter.size() - filterSize);
+        mScroller.setThreshold(mViewModel.getThreshold(getKey(), SpiderStats.CATEGORY));
         mViewModel.categoryContent(getKey(), typeId, page, true, mExtends);
     }
 
@@ -297,12 +300,26 @@ public class VodFragment extends BaseFragment implements CustomScroller.Callback
         return true;
     }
 
+    @Override
+    public void onItemFocus(Vod item, boolean focused) {
+        DetailPrefetcher.get().focus(getKey(), item, focused);
+    }
+
     @Override
     public void onLoadMore(String page) {
         mScroller.setLoading(true);
         getVideo(getTypeId(), page);
     }
 
+    @Override
+    public void onPrefetch(String page) {
+        mViewModel.prefetchCategory(getKey(), getTypeId(), page, true, mExtends);
+    }
+
+    public void refreshImage() {
+        mAdapter.notifyArrayItemRangeChanged(0, mAdapter.size());
+    }
+
     @Override
     public void setUserVisibleHint(boolean isVisibleToUser) {
         super.setUserVisibleHint(isVisibleToUser);
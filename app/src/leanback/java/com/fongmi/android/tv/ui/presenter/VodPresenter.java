@@ -38,10 +38,19 @@ public class VodPresenter extends Presenter {
         void onItemClick(Vod item);
 
         boolean onLongClick(Vod item);
+
+        default void onItemFocus(Vod item, boolean focused) {
+        }
     }
 
     @Override
     public Presenter.ViewHolder onCreateViewHolder(ViewGroup parent) {
+        BaseVodHolder holder = getHolder(parent);
+        holder.view.setOnFocusChangeListener((view, hasFocus) -> mListener.onItemFocus(holder.getItem(), hasFocus));
+        return holder;
+    }
+
+    private BaseVodHolder getHolder(ViewGroup parent) {
         switch (style.getViewType()) {
             case ViewType.LIST:
                 return new VodListHolder(AdapterVodListBinding.inflate(LayoutInflater.from(parent.getContext()), parent, false), mListener);
@@ -54,7 +63,7 @@ public class VodPresenter extends Presenter {
 
     @Override
     public void onBindViewHolder(Presenter.ViewHolder viewHolder, Object object) {
-        ((BaseVodHolder) viewHolder).initView((Vod) object);
+        ((BaseVodHolder) viewHolder).bind((Vod) object);
     }
 
     @Override
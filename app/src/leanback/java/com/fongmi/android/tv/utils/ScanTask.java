@@ -3,12 +3,15 @@ import com.github.catvod.utils.Logger;
 
 import com.fongmi.android.tv.App;
 import com.fongmi.android.tv.bean.Device;
+import com.fongmi.android.tv.server.Beacon;
 import com.fongmi.android.tv.server.Server;
+import com.github.catvod.Proxy;
 import com.github.catvod.net.OkHttp;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
@@ -18,8 +21,16 @@ import java.util.concurrent.Executors;
 import okhttp3.OkHttpClient;
 import okhttp3.Response;
 
+/**
+ * 局域网设备扫描 - 先广播查询并探测已知设备，都没有找到时再以有限线程扫描本网段
+ * 应答 /device 的地址记入 Beacon 的已知设备，探测失败的从中移除
+ */
 public class ScanTask {
 
+    private static final int THREADS = 32;
+    private static final int WAIT = 800;
+
+    private final OkHttpClient fallback;
     private final List<Device> devices;
     private final OkHttpClient client;
 
@@ -28,16 +39,17 @@ public class ScanTask {
 
     public ScanTask(Listener listener) {
         this.devices = Collections.synchronizedList(new ArrayList<>());
+        this.fallback = OkHttp.client(300);
         this.client = OkHttp.client(1000);
         this.listener = listener;
     }
 
     public void start(List<String> ips) {
-        App.execute(() -> run(getUrl(ips)));
+        App.execute(() -> run(ips));
     }
 
     public void start(String url) {
-        App.execute(() -> run(List.of(url)));
+        App.execute(() -> run(List.of(url), client));
     }
 
     public void stop() {
@@ -48,43 +60,66 @@ public class ScanTask {
 
     private void init() {
         if (executor != null) executor.shutdownNow();
-        executor = Executors.newCachedThreadPool();
+        executor = Executors.newFixedThreadPool(THREADS);
         devices.clear();
     }
 
-    private void run(List<String> items) {
+    private void run(List<String> ips) {
         try {
             init();
-            getDevice(items);
+            Set<String> urls = new LinkedHashSet<>(ips);
+            urls.addAll(Beacon.discover(WAIT, Proxy.getPort()));
+            urls.addAll(Beacon.getPeers());
+            getDevice(urls, client);
+            if (devices.isEmpty()) getDevice(getSubnet(urls), fallback);
         } catch (Exception e) {
             Logger.e("Error", e);
         } finally {
-            App.post(() -> {
-                if (listener != null) listener.onFind(devices);
-            });
+            onFind();
         }
     }
 
-    private void getDevice(List<String> urls) throws Exception {
-        CountDownLatch cd = new CountDownLatch(urls.size() - 1);
-        for (String url : urls) executor.execute(() -> findDevice(cd, url));
+    private void run(List<String> urls, OkHttpClient client) {
+        try {
+            init();
+            getDevice(urls, client);
+        } catch (Exception e) {
+            Logger.e("Error", e);
+        } finally {
+            onFind();
+        }
+    }
+
+    private void onFind() {
+        App.post(() -> {
+            if (listener != null) listener.onFind(devices);
+        });
+    }
+
+    private void getDevice(Collection<String> urls, OkHttpClient client) throws Exception {
+        CountDownLatch cd = new CountDownLatch(urls.size());
+        for (String url : urls) executor.execute(() -> findDevice(cd, url, client));
         cd.await();
     }
 
-    private List<String> getUrl(List<String> ips) {
-        Set<String> urls = new HashSet<>(ips);
+    private List<String> getSubnet(Set<String> exclude) {
+        List<String> urls = new ArrayList<>();
         String local = Server.get().getAddress();
         String base = local.substring(0, local.lastIndexOf(".") + 1);
-        for (int i = 1; i < 256; i++) urls.add(base + i + ":9978");
-        return new ArrayList<>(urls);
+        for (int i = 1; i < 255; i++) if (!exclude.contains(base + i + ":9978")) urls.add(base + i + ":9978");
+        return urls;
     }
 
-    private void findDevice(CountDownLatch cd, String url) {
-        if (url.contains(Server.get().getAddress())) return;
-        try (Response res = OkHttp.newCall(client, url.concat("/device")).execute()) {
-            Device device = Device.objectFrom(res.body().string());
-            if (device != null) devices.add(device.save());
-        } catch (Exception ignored) {
+    private void findDevice(CountDownLatch cd, String url, OkHttpClient client) {
+        try {
+            if (url.isEmpty() || url.contains(Server.get().getAddress())) return;
+            try (Response res = OkHttp.newCall(client, url.concat("/device")).execute()) {
+                Device device = Device.objectFrom(res.body().string());
+                if (device != null) devices.add(device.save());
+                if (device != null) Beacon.addPeer(url);
+            }
+        } catch (Exception e) {
+            if (!Thread.currentThread().isInterrupted()) Beacon.removePeer(url);
         } finally {
             cd.countDown();
         }
@@ -24,6 +24,7 @@ import com.fongmi.hook.Hook;
 import com.github.catvod.Init;
 import com.github.catvod.bean.Doh;
 import com.github.catvod.net.OkHttp;
+import com.github.catvod.utils.Trans;
 import com.google.gson.Gson;
 
 
@@ -141,6 +142,7 @@ public class App extends Application {
         CaocConfig.Builder.create().backgroundMode(CaocConfig.BACKGROUND_MODE_SILENT).errorActivity(CrashActivity.class).apply();
         // Ensure default notification channel exists for foreground playback service (TV flavor too)
         Notify.createChannel();
+        execute(Trans::preload);
         
         // 初始化自动缓存清理
         initCacheCleaner();
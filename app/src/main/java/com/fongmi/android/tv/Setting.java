@@ -457,4 +457,44 @@ public class Setting {
     public static void putWebDAVSyncInterval(int minutes) {
         Prefers.put("webdav_sync_interval", minutes);
     }
+
+    public static int getPrefetchDwell() {
+        return Prefers.getInt("prefetch_dwell", 600);
+    }
+
+    public static void putPrefetchDwell(int millis) {
+        Prefers.put("prefetch_dwell", millis);
+    }
+
+    public static int getPreloadNext() {
+        return Prefers.getInt("preload_next", 30);
+    }
+
+    public static void putPreloadNext(int seconds) {
+        Prefers.put("preload_next", seconds);
+    }
+
+    public static int getSearchEnough() {
+        return Prefers.getInt("search_enough", 0);
+    }
+
+    public static void putSearchEnough(int count) {
+        Prefers.put("search_enough", count);
+    }
+
+    public static int getSearchDeadline() {
+        return Prefers.getInt("search_deadline", 1500);
+    }
+
+    public static void putSearchDeadline(int deadline) {
+        Prefers.put("search_deadline", deadline);
+    }
+
+    public static String getPeers() {
+        return Prefers.getString("peers");
+    }
+
+    public static void putPeers(String peers) {
+        Prefers.put("peers", peers);
+    }
 }
@@ -4,7 +4,6 @@ import android.util.Base64;
 
 import com.fongmi.android.tv.utils.UrlUtil;
 import com.github.catvod.net.OkHttp;
-import com.github.catvod.utils.Json;
 import com.github.catvod.utils.Util;
 
 import java.nio.charset.StandardCharsets;
@@ -33,27 +32,48 @@ public class Decoder {
 
     private static String verify(String url, String data) throws Exception {
         if (data.isEmpty()) throw new Exception();
-        if (Json.isObj(data)) return fix(url, data);
+        if (isObj(data)) return fix(url, data);
         if (data.contains("**")) data = base64(data);
         if (data.startsWith("2423")) data = cbc(data);
         return fix(url, data);
     }
 
+    private static boolean isObj(String data) {
+        for (int i = 0; i < data.length(); i++) {
+            char c = data.charAt(i);
+            if (c == '\uFEFF' || Character.isWhitespace(c)) continue;
+            return c == '{';
+        }
+        return false;
+    }
+
     private static String fix(String url, String data) {
+        if (!data.contains("./")) return data;
+        String current = UrlUtil.resolve(url, "./");
+        String parent = UrlUtil.resolve(url, "../");
+        StringBuilder sb = new StringBuilder(data.length() + 1024);
         Matcher matcher = JS_URI.matcher(data);
-        while (matcher.find()) data = replace(url, data, matcher.group());
-        if (data.contains("../")) data = data.replace("../", UrlUtil.resolve(url, "../"));
-        if (data.contains("./")) data = data.replace("./", UrlUtil.resolve(url, "./"));
-        if (data.contains("__JS1__")) data = data.replace("__JS1__", "./");
-        if (data.contains("__JS2__")) data = data.replace("__JS2__", "../");
-        return data;
+        int start = 0;
+        while (matcher.find()) {
+            append(sb, data, start, matcher.start(), current, parent);
+            boolean up = data.startsWith("\"../", matcher.start());
+            sb.append('"').append(up ? parent : current).append(data, matcher.start() + (up ? 4 : 3), matcher.end());
+            start = matcher.end();
+        }
+        append(sb, data, start, data.length(), current, parent);
+        return sb.toString();
     }
 
-    private static String replace(String url, String data, String ext) {
-        String t = ext.replace("\"./", "\"" + UrlUtil.resolve(url, "./"));
-        t = t.replace("\"../", "\"" + UrlUtil.resolve(url, "../"));
-        t = t.replace("./", "__JS1__").replace("../", "__JS2__");
-        return data.replace(ext, t);
+    private static void append(StringBuilder sb, String data, int start, int end, String current, String parent) {
+        int i = start;
+        while (i < end) {
+            int dot = data.indexOf("./", i);
+            if (dot < 0 || dot + 2 > end) break;
+            boolean up = dot > i && data.charAt(dot - 1) == '.';
+            sb.append(data, i, up ? dot - 1 : dot).append(up ? parent : current);
+            i = dot + 2;
+        }
+        sb.append(data, i, end);
     }
 
     private static String cbc(String data) throws Exception {
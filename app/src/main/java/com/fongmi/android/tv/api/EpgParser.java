@@ -24,6 +24,7 @@ import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 public class EpgParser {
@@ -31,15 +32,26 @@ public class EpgParser {
     private static final SimpleDateFormat formatTime = new SimpleDateFormat("HH:mm", Locale.getDefault());
     private static final SimpleDateFormat formatDate = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
     private static final SimpleDateFormat formatFull = new SimpleDateFormat("yyyyMMddHHmmss Z", Locale.getDefault());
+    private static final Map<String, Object> LOCKS = new ConcurrentHashMap<>();
 
     public static boolean start(Live live, String url) throws Exception {
         File file = Path.epg(Uri.parse(url).getLastPathSegment());
-        if (shouldDownload(file)) Download.create(url, file).start();
+        download(url, file);
         if (file.getName().endsWith(".gz")) readGzip(live, file);
         else readXml(live, file);
         return true;
     }
 
+    public static void prefetch(String url) {
+        download(url, Path.epg(Uri.parse(url).getLastPathSegment()));
+    }
+
+    private static void download(String url, File file) {
+        synchronized (LOCKS.computeIfAbsent(file.getAbsolutePath(), k -> new Object())) {
+            if (shouldDownload(file)) Download.create(url, file).start();
+        }
+    }
+
     private static boolean shouldDownload(File file) {
         return !file.exists() || !isToday(file.lastModified()) || System.currentTimeMillis() - file.lastModified() > TimeUnit.HOURS.toMillis(6);
     }
@@ -11,10 +11,15 @@ import com.fongmi.android.tv.bean.Live;
 import com.fongmi.android.tv.utils.UrlUtil;
 import com.github.catvod.net.OkHttp;
 import com.github.catvod.utils.Json;
+import com.github.catvod.utils.Path;
+import com.github.catvod.utils.Util;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -32,6 +37,7 @@ public class LiveParser {
     private static final Pattern URL_TVG = Pattern.compile(".*url-tvg=\"(.?|.+?)\".*");
     private static final Pattern GROUP = Pattern.compile(".*group-title=\"(.?|.+?)\".*");
     private static final Pattern NAME = Pattern.compile(".*,(.+?)$");
+    private static final long TTL = TimeUnit.MINUTES.toMillis(10);
 
     private static String extract(String line, Pattern pattern) {
         Matcher matcher = pattern.matcher(line.trim());
@@ -53,8 +59,47 @@ public class LiveParser {
     }
 
     private static String getText(Live live) throws Exception {
-        if (!live.getApi().isEmpty()) return live.spider().liveContent(live.getUrl());
-        return OkHttp.string(UrlUtil.convert(live.getUrl()), live.getHeaders());
+        if (!live.getApi().isEmpty()) return SpiderStats.get().track(live.getName(), SpiderStats.LIVE, () -> live.spider().liveContent(live.getUrl()));
+        String url = UrlUtil.convert(live.getUrl());
+        File file = getCache(url);
+        return isFresh(file) ? Path.read(file) : OkHttp.string(url, live.getHeaders());
+    }
+
+    /**
+     * 预取播放列表写入缓存目录，TTL 内打开直播时直接读取
+     */
+    public static void prefetch(Live live) {
+        if (!live.getApi().isEmpty() || !live.getGroups().isEmpty()) return;
+        String url = UrlUtil.convert(live.getUrl());
+        File file = getCache(url);
+        if (!url.startsWith("http") || isFresh(file)) return;
+        String text = OkHttp.string(url, live.getHeaders());
+        if (text.isEmpty()) return;
+        File temp = Path.cache(file.getName() + ".tmp");
+        Path.write(temp, text.getBytes(StandardCharsets.UTF_8));
+        if (!temp.renameTo(file)) Path.clear(temp);
+    }
+
+    /**
+     * 用户手动刷新时调用，丢弃预取文件，下次加载直接请求网络
+     */
+    public static void refresh(Live live) {
+        Path.clear(getCache(UrlUtil.convert(live.getUrl())));
+    }
+
+    /**
+     * 删除过期的预取文件
+     */
+    public static void clear() {
+        for (File file : Path.list(Path.cache())) if (file.getName().startsWith("live_") && !isFresh(file)) Path.clear(file);
+    }
+
+    private static File getCache(String url) {
+        return Path.cache("live_" + Util.md5(url));
+    }
+
+    private static boolean isFresh(File file) {
+        return file.exists() && System.currentTimeMillis() - file.lastModified() < TTL;
     }
 
     public static void text(Live live, String text) {
@@ -0,0 +1,99 @@
+package com.fongmi.android.tv.api;
+
+import android.text.TextUtils;
+
+import com.fongmi.android.tv.App;
+import com.fongmi.android.tv.bean.Site;
+import com.github.catvod.utils.Json;
+import com.github.catvod.utils.Logger;
+import com.github.catvod.utils.Path;
+import com.google.gson.JsonObject;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 站点排序 - 按搜索命中率、耗时与点击次数给站点打分，搜索时优先派发分数高的站点
+ */
+public class SiteRanker {
+
+    private static final long SAVE_DELAY = 30 * 1000;
+    private static final int MAX_CLICK = 100;
+
+    private final ConcurrentHashMap<String, Integer> clicks;
+    private final AtomicBoolean dirty;
+    private final Runnable saveTask;
+
+    private static class Loader {
+        static volatile SiteRanker INSTANCE = new SiteRanker();
+    }
+
+    public static SiteRanker get() {
+        return Loader.INSTANCE;
+    }
+
+    private SiteRanker() {
+        this.clicks = new ConcurrentHashMap<>();
+        this.dirty = new AtomicBoolean();
+        this.saveTask = () -> App.execute(this::save);
+        this.load();
+    }
+
+    private static File getFile() {
+        return Path.files("site_rank.json");
+    }
+
+    public void click(String key) {
+        if (TextUtils.isEmpty(key)) return;
+        if (clicks.merge(key, 1, Integer::sum) > MAX_CLICK) decay();
+        if (dirty.compareAndSet(false, true)) App.post(saveTask, SAVE_DELAY);
+    }
+
+    /**
+     * 按分数降序排列，分数相同保持原顺序
+     */
+    public void sort(List<Site> sites) {
+        Map<String, Double> scores = new HashMap<>();
+        for (Site site : sites) scores.put(site.getKey(), score(site.getKey()));
+        sites.sort((s1, s2) -> Double.compare(scores.get(s2.getKey()), scores.get(s1.getKey())));
+    }
+
+    /**
+     * 分数 = 命中率 × 点击加成 ÷ 耗时系数
+     * 没有记录的站点按命中率 0.5、耗时 1 秒估计，保证新站点也有机会排在前面
+     */
+    private double score(String key) {
+        double hit = SpiderStats.get().getHitRate(key, SpiderStats.SEARCH);
+        long latency = SpiderStats.get().getLatency(key, SpiderStats.SEARCH);
+        Integer click = clicks.get(key);
+        double boost = 1 + Math.log1p(click == null ? 0 : click) / 2;
+        return hit * boost / (1 + (latency == 0 ? 1000 : latency) / 1000.0);
+    }
+
+    private void decay() {
+        for (Map.Entry<String, Integer> entry : clicks.entrySet()) {
+            if (entry.getValue() > 1) clicks.put(entry.getKey(), entry.getValue() / 2);
+            else clicks.remove(entry.getKey());
+        }
+    }
+
+    private void load() {
+        try {
+            String text = Path.read(getFile());
+            if (text.isEmpty()) return;
+            JsonObject object = Json.parse(text).getAsJsonObject();
+            for (String key : object.keySet()) clicks.put(key, object.get(key).getAsInt());
+        } catch (Exception e) {
+            Logger.e("Error", e);
+        }
+    }
+
+    private synchronized void save() {
+        dirty.set(false);
+        Path.write(getFile(), App.gson().toJson(clicks).getBytes());
+    }
+}
@@ -0,0 +1,231 @@
+package com.fongmi.android.tv.api;
+
+import android.text.TextUtils;
+
+import com.fongmi.android.tv.App;
+import com.fongmi.android.tv.bean.Result;
+import com.github.catvod.utils.Json;
+import com.github.catvod.utils.Logger;
+import com.github.catvod.utils.Path;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 爬虫调用统计 - 按站点和方法记录耗时分布及成功/空/失败次数
+ */
+public class SpiderStats {
+
+    public static final String HOME = "home";
+    public static final String CATEGORY = "category";
+    public static final String DETAIL = "detail";
+    public static final String SEARCH = "search";
+    public static final String PLAYER = "player";
+    public static final String LIVE = "live";
+    public static final String PROXY = "proxy";
+    public static final String ACTION = "action";
+    public static final String DEADLINE = "deadline";
+
+    private static final long[] BOUNDS = {50, 100, 200, 500, 1000, 2000, 3000, 5000, 10000, 15000, 30000};
+    private static final long SAVE_DELAY = 30 * 1000;
+
+    private final ConcurrentHashMap<String, Metric> metrics;
+    private final AtomicBoolean dirty;
+    private final Runnable saveTask;
+
+    private static class Loader {
+        static volatile SpiderStats INSTANCE = new SpiderStats();
+    }
+
+    public static SpiderStats get() {
+        return Loader.INSTANCE;
+    }
+
+    private SpiderStats() {
+        this.metrics = new ConcurrentHashMap<>();
+        this.dirty = new AtomicBoolean();
+        this.saveTask = () -> App.execute(this::save);
+        this.load();
+    }
+
+    private static File getFile() {
+        return Path.files("spider_stats.json");
+    }
+
+    private static String getKey(String key, String method) {
+        return key + "@" + method;
+    }
+
+    public <T> T track(String key, String method, Callable<T> callable) throws Exception {
+        long start = System.nanoTime();
+        try {
+            T result = callable.call();
+            record(key, method, System.nanoTime() - start, isEmpty(result) ? Metric.EMPTY : Metric.SUCCESS);
+            return result;
+        } catch (Exception e) {
+            record(key, method, System.nanoTime() - start, Metric.ERROR);
+            throw e;
+        }
+    }
+
+    /**
+     * 记录搜索是否在截止时间内返回，超时记为空
+     */
+    public void deadline(String key, long millis, boolean hit) {
+        record(key, DEADLINE, millis * 1000000, hit ? Metric.SUCCESS : Metric.EMPTY);
+    }
+
+    private void record(String key, String method, long nanos, int outcome) {
+        if (TextUtils.isEmpty(key)) return;
+        Metric metric = metrics.get(getKey(key, method));
+        if (metric == null) metric = metrics.computeIfAbsent(getKey(key, method), k -> new Metric(key, method));
+        metric.add(nanos / 1000000, outcome);
+        if (dirty.compareAndSet(false, true)) App.post(saveTask, SAVE_DELAY);
+    }
+
+    private static boolean isEmpty(Object result) {
+        if (result == null) return true;
+        if (result instanceof String) return ((String) result).trim().isEmpty();
+        if (result instanceof Object[]) return ((Object[]) result).length == 0;
+        if (result instanceof Result) return ((Result) result).getList().isEmpty();
+        return false;
+    }
+
+    public long getLatency(String key, String method) {
+        Metric metric = metrics.get(getKey(key, method));
+        return metric == null ? 0 : metric.percentile(0.9);
+    }
+
+    public double getHitRate(String key, String method) {
+        Metric metric = metrics.get(getKey(key, method));
+        return metric == null ? 0.5 : (metric.outcomes.get(Metric.SUCCESS) + 1.0) / (metric.count() + 2.0);
+    }
+
+    public JsonArray toJson(String key) {
+        JsonArray array = new JsonArray();
+        for (Metric metric : metrics.values()) if (TextUtils.isEmpty(key) || metric.key.equals(key)) array.add(metric.toJson());
+        return array;
+    }
+
+    public void reset(String key) {
+        if (TextUtils.isEmpty(key)) metrics.clear();
+        else for (Map.Entry<String, Metric> entry : metrics.entrySet()) if (entry.getValue().key.equals(key)) metrics.remove(entry.getKey());
+        App.post(saveTask, 0);
+    }
+
+    private void load() {
+        try {
+            String text = Path.read(getFile());
+            if (text.isEmpty()) return;
+            for (JsonElement element : Json.parse(text).getAsJsonArray()) {
+                Metric metric = Metric.objectFrom(element.getAsJsonObject());
+                metrics.put(getKey(metric.key, metric.method), metric);
+            }
+        } catch (Exception e) {
+            Logger.e("Error", e);
+        }
+    }
+
+    private synchronized void save() {
+        dirty.set(false);
+        Path.write(getFile(), toJson(null).toString().getBytes());
+    }
+
+    private static class Metric {
+
+        private static final int SUCCESS = 0;
+        private static final int EMPTY = 1;
+        private static final int ERROR = 2;
+
+        private final String key;
+        private final String method;
+        private final AtomicLongArray buckets;
+        private final AtomicLongArray outcomes;
+        private final AtomicLong total;
+        private final AtomicLong max;
+
+        private Metric(String key, String method) {
+            this.key = key;
+            this.method = method;
+            this.buckets = new AtomicLongArray(BOUNDS.length + 1);
+            this.outcomes = new AtomicLongArray(3);
+            this.total = new AtomicLong();
+            this.max = new AtomicLong();
+        }
+
+        private static int indexOf(long millis) {
+            for (int i = 0; i < BOUNDS.length; i++) if (millis <= BOUNDS[i]) return i;
+            return BOUNDS.length;
+        }
+
+        private void add(long millis, int outcome) {
+            buckets.incrementAndGet(indexOf(millis));
+            outcomes.incrementAndGet(outcome);
+            total.addAndGet(millis);
+            setMax(millis);
+        }
+
+        private void setMax(long millis) {
+            long prev = max.get();
+            while (millis > prev && !max.compareAndSet(prev, millis)) prev = max.get();
+        }
+
+        private long count() {
+            return outcomes.get(SUCCESS) + outcomes.get(EMPTY) + outcomes.get(ERROR);
+        }
+
+        private long percentile(double p) {
+            long count = count();
+            if (count == 0) return 0;
+            long target = (long) Math.ceil(count * p);
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= target) return i < BOUNDS.length ? BOUNDS[i] : max.get();
+            }
+            return max.get();
+        }
+
+        private static Metric objectFrom(JsonObject object) {
+            Metric metric = new Metric(object.get("key").getAsString(), object.get("method").getAsString());
+            JsonArray buckets = object.getAsJsonArray("buckets");
+            for (int i = 0; i < Math.min(buckets.size(), metric.buckets.length()); i++) metric.buckets.set(i, buckets.get(i).getAsLong());
+            metric.outcomes.set(SUCCESS, object.get("success").getAsLong());
+            metric.outcomes.set(EMPTY, object.get("empty").getAsLong());
+            metric.outcomes.set(ERROR, object.get("error").getAsLong());
+            metric.total.set(object.get("total").getAsLong());
+            metric.max.set(object.get("max").getAsLong());
+            return metric;
+        }
+
+        private JsonObject toJson() {
+            long count = count();
+            JsonObject object = new JsonObject();
+            JsonArray array = new JsonArray();
+            for (int i = 0; i < buckets.length(); i++) array.add(buckets.get(i));
+            object.addProperty("key", key);
+            object.addProperty("method", method);
+            object.addProperty("count", count);
+            object.addProperty("success", outcomes.get(SUCCESS));
+            object.addProperty("empty", outcomes.get(EMPTY));
+            object.addProperty("error", outcomes.get(ERROR));
+            object.addProperty("total", total.get());
+            object.addProperty("avg", count == 0 ? 0 : total.get() / count);
+            object.addProperty("max", max.get());
+            object.addProperty("p50", percentile(0.5));
+            object.addProperty("p90", percentile(0.9));
+            object.addProperty("p99", percentile(0.99));
+            object.add("bounds", App.gson().toJsonTree(BOUNDS));
+            object.add("buckets", array);
+            return object;
+        }
+    }
+}
@@ -178,6 +178,7 @@ public class LiveConfig {
         try {
             initLive(object);
             initOther(object);
+            BaseLoader.get().retainLives(lives);
         } catch (Throwable e) {
             Logger.e("Error", e);
         } finally {
@@ -0,0 +1,131 @@
+package com.fongmi.android.tv.api.config;
+
+import com.fongmi.android.tv.api.EpgParser;
+import com.fongmi.android.tv.api.LiveParser;
+import com.fongmi.android.tv.bean.Live;
+import com.fongmi.android.tv.bean.Site;
+import com.fongmi.android.tv.utils.ImgUtil;
+import com.fongmi.quickjs.utils.Module;
+import com.github.catvod.utils.Logger;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 资源预取 - 配置加载后按优先级并发下载 JS 爬虫、直播源、EPG 与图标
+ */
+public class Prefetcher {
+
+    private static final int JS = 0;
+    private static final int LIVE = 1;
+    private static final int EPG = 2;
+    private static final int IMAGE = 3;
+    private static final int JS_LIMIT = 32;
+    private static final int LIVE_LIMIT = 3;
+
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger generation;
+    private final AtomicInteger total;
+    private final AtomicInteger done;
+    private final AtomicInteger order;
+
+    private static class Loader {
+        static volatile Prefetcher INSTANCE = new Prefetcher();
+    }
+
+    public static Prefetcher get() {
+        return Loader.INSTANCE;
+    }
+
+    private Prefetcher() {
+        executor = new ThreadPoolExecutor(3, 3, 30, TimeUnit.SECONDS, new PriorityBlockingQueue<>());
+        executor.allowCoreThreadTimeOut(true);
+        generation = new AtomicInteger();
+        total = new AtomicInteger();
+        done = new AtomicInteger();
+        order = new AtomicInteger();
+    }
+
+    public void start(List<Site> sites, List<Live> lives, String logo) {
+        int id = reset();
+        Set<String> images = new LinkedHashSet<>();
+        images.add(logo);
+        for (String api : getScripts(sites)) submit(id, JS, () -> Module.get().prefetch(api));
+        for (Live live : rank(lives)) {
+            submit(id, LIVE, () -> LiveParser.prefetch(live));
+            for (String url : live.getEpgXml()) submit(id, EPG, () -> EpgParser.prefetch(url));
+        }
+        for (Live live : lives) images.add(live.getLogo());
+        for (String url : images) if (url != null && url.startsWith("http")) submit(id, IMAGE, () -> ImgUtil.preload(url));
+    }
+
+    public void cancel() {
+        reset();
+    }
+
+    private int reset() {
+        executor.getQueue().clear();
+        Module.get().clear();
+        LiveParser.clear();
+        total.set(0);
+        done.set(0);
+        return generation.incrementAndGet();
+    }
+
+    private Set<String> getScripts(List<Site> sites) {
+        Set<String> items = new LinkedHashSet<>();
+        for (Site site : sites) if (items.size() < JS_LIMIT && site.getApi().startsWith("http") && site.getApi().contains(".js")) items.add(site.getApi());
+        return items;
+    }
+
+    private List<Live> rank(List<Live> lives) {
+        Live home = LiveConfig.get().getHome();
+        List<Live> items = new ArrayList<>();
+        if (lives.contains(home)) items.add(home);
+        for (Live live : lives) if (items.size() < LIVE_LIMIT && !items.contains(live)) items.add(live);
+        return items;
+    }
+
+    private void submit(int id, int priority, Runnable runnable) {
+        total.incrementAndGet();
+        executor.execute(new Task(id, priority, order.incrementAndGet(), runnable));
+    }
+
+    private class Task implements Runnable, Comparable<Task> {
+
+        private final int id;
+        private final int priority;
+        private final int sequence;
+        private final Runnable runnable;
+
+        private Task(int id, int priority, int sequence, Runnable runnable) {
+            this.id = id;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.runnable = runnable;
+        }
+
+        @Override
+        public void run() {
+            if (id != generation.get()) return;
+            try {
+                runnable.run();
+            } catch (Throwable e) {
+                Logger.e("Error", e);
+            }
+            if (id == generation.get() && done.incrementAndGet() == total.get()) Logger.d("Prefetcher: " + total.get() + " resources ready");
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            if (priority != other.priority) return Integer.compare(priority, other.priority);
+            return Integer.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.fongmi.android.tv.api.config;
+
+import com.fongmi.android.tv.BuildConfig;
+import com.fongmi.android.tv.bean.Config;
+import com.fongmi.android.tv.bean.Site;
+import com.github.catvod.Proxy;
+import com.github.catvod.utils.Json;
+import com.github.catvod.utils.Logger;
+import com.github.catvod.utils.Path;
+import com.github.catvod.utils.Trans;
+import com.github.catvod.utils.Util;
+import com.google.gson.JsonObject;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 配置快照 - 按源内容哈希保存解析后的站点列表，源未变化时跳过逐站点解析
+ * 站点地址中的本地链接已换成本机服务地址，服务端口变化后快照作废
+ */
+public class Snapshot {
+
+    private static final int MAGIC = 0x584D4253;
+    private static final int VERSION = 3;
+
+    private final String spider;
+    private final JsonObject object;
+    private final List<Site> sites;
+
+    private Snapshot(String spider, JsonObject object, List<Site> sites) {
+        this.spider = spider;
+        this.object = object;
+        this.sites = sites;
+    }
+
+    private static File getFile(Config config) {
+        return Path.cache("snapshot_" + Util.md5(config.getUrl()) + ".bin");
+    }
+
+    public String getSpider() {
+        return spider;
+    }
+
+    public JsonObject getObject() {
+        return object;
+    }
+
+    public List<Site> getSites() {
+        return sites;
+    }
+
+    public static Snapshot load(Config config, String hash) {
+        File file = getFile(config);
+        if (!file.exists()) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != BuildConfig.VERSION_CODE) return null;
+            if (in.readBoolean() != Trans.pass() || in.readInt() != Proxy.getPort() || !hash.equals(in.readUTF())) return null;
+            String spider = readString(in);
+            JsonObject object = Json.parse(readString(in)).getAsJsonObject();
+            int size = in.readInt();
+            List<Site> sites = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) sites.add(Site.read(in));
+            return new Snapshot(spider, object, sites);
+        } catch (Exception e) {
+            Logger.e("Error", e);
+            Path.clear(file);
+            return null;
+        }
+    }
+
+    public static void save(Config config, String hash, JsonObject object, List<Site> sites) {
+        File file = getFile(config);
+        File temp = Path.cache(file.getName() + ".tmp");
+        JsonObject copy = object.deepCopy();
+        JsonObject video = copy.has("video") ? copy.getAsJsonObject("video") : copy;
+        String spider = Json.safeString(video, "spider");
+        video.remove("sites");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(BuildConfig.VERSION_CODE);
+            out.writeBoolean(Trans.pass());
+            out.writeInt(Proxy.getPort());
+            out.writeUTF(hash);
+            writeString(out, spider);
+            writeString(out, copy.toString());
+            out.writeInt(sites.size());
+            for (Site site : sites) site.write(out);
+        } catch (Exception e) {
+            Logger.e("Error", e);
+            Path.clear(temp);
+            return;
+        }
+        if (!temp.renameTo(file)) Path.clear(temp);
+    }
+
+    public static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    public static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static void writeInteger(DataOutput out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeInt(value);
+    }
+
+    public static Integer readInteger(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+}
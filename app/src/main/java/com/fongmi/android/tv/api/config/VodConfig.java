@@ -7,23 +7,30 @@ import com.fongmi.android.tv.App;
 import com.fongmi.android.tv.R;
 import com.fongmi.android.tv.api.Decoder;
 import com.fongmi.android.tv.api.loader.BaseLoader;
+import com.fongmi.android.tv.api.loader.SpiderWarmer;
 import com.fongmi.android.tv.bean.Config;
 import com.fongmi.android.tv.bean.Depot;
 import com.fongmi.android.tv.bean.Parse;
 import com.fongmi.android.tv.bean.Rule;
 import com.fongmi.android.tv.bean.Site;
 import com.fongmi.android.tv.impl.Callback;
+import com.fongmi.android.tv.model.PosterCache;
 import com.fongmi.android.tv.utils.Notify;
 import com.fongmi.android.tv.utils.UrlUtil;
 import com.github.catvod.bean.Doh;
 import com.github.catvod.net.OkHttp;
 import com.github.catvod.utils.Json;
+import com.github.catvod.utils.Util;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class VodConfig {
 
@@ -37,6 +44,7 @@ public class VodConfig {
     private Config config;
     private Parse parse;
     private String wall;
+    private String hash;
     private Site home;
     private volatile boolean isLoading = false; // 添加加载状态标记
 
@@ -108,9 +116,9 @@ public class VodConfig {
             instance.isLoading = true;
         }
         
-        android.util.Log.d("VodConfig", "Calling instance.clear().config(config).load(callback)");
+        android.util.Log.d("VodConfig", "Calling instance.reset().config(config).load(callback)");
         try {
-            instance.clear().config(config).load(callback);
+            instance.reset().config(config).load(callback);
         } catch (Exception e) {
             instance.isLoading = false;
             android.util.Log.e("VodConfig", "Exception during load", e);
@@ -140,6 +148,14 @@ public class VodConfig {
     }
 
     public VodConfig clear() {
+        SpiderWarmer.get().cancel();
+        Prefetcher.get().cancel();
+        PosterCache.get().clear();
+        BaseLoader.get().clear();
+        return reset();
+    }
+
+    private VodConfig reset() {
         this.wall = null;
         this.home = null;
         this.parse = null;
@@ -150,7 +166,6 @@ public class VodConfig {
         if (this.flags != null) this.flags.clear();
         if (this.parses != null) this.parses.clear();
         this.loadLive = true;
-        BaseLoader.get().clear();
         return this;
     }
 
@@ -161,7 +176,11 @@ public class VodConfig {
     private void loadConfig(Callback callback) {
         try {
             OkHttp.cancel("vod");
-            checkJson(Json.parse(Decoder.getJson(UrlUtil.convert(config.getUrl()), "vod")).getAsJsonObject(), callback);
+            String json = Decoder.getJson(UrlUtil.convert(config.getUrl()), "vod");
+            hash = Util.md5(json);
+            Snapshot snapshot = TextUtils.isEmpty(config.getJson()) ? null : Snapshot.load(config, hash);
+            if (snapshot != null) parseConfig(snapshot.getObject(), snapshot, callback);
+            else checkJson(Json.parse(json).getAsJsonObject(), callback);
         } catch (Throwable e) {
             if (TextUtils.isEmpty(config.getUrl())) {
                 isLoading = false;
@@ -174,6 +193,7 @@ public class VodConfig {
     }
 
     private void loadCache(Callback callback, Throwable e) {
+        hash = null;
         if (!TextUtils.isEmpty(config.getJson())) {
             checkJson(Json.parse(config.getJson()).getAsJsonObject(), callback);
         } else {
@@ -202,14 +222,24 @@ public class VodConfig {
     }
 
     private void parseConfig(JsonObject object, Callback callback) {
+        parseConfig(object, null, callback);
+    }
+
+    private void parseConfig(JsonObject object, Snapshot snapshot, Callback callback) {
         try {
-            initSite(object);
+            if (snapshot != null) initSite(snapshot);
+            else initSite(object);
             initParse(object);
             initOther(object);
             if (loadLive && object.has("lives")) initLive(object);
+            BaseLoader.get().retainSites(sites);
+            SpiderWarmer.get().warm(getHome(), sites);
+            Prefetcher.get().start(sites, LiveConfig.get().getLives(), Json.safeString(object, "logo"));
             String notice = Json.safeString(object, "notice");
             config.logo(Json.safeString(object, "logo"));
-            config.json(object.toString()).update();
+            if (snapshot == null) config.json(object.toString());
+            config.update();
+            if (snapshot == null && hash != null) saveSnapshot(config, hash, object, new ArrayList<>(sites));
             
             // 重置加载状态
             isLoading = false;
@@ -234,32 +264,54 @@ public class VodConfig {
             return;
         }
         String spider = Json.safeString(object, "spider");
-        try {
-            BaseLoader.get().parseJar(spider, true);
-        } catch (Throwable e) {
-            android.util.Log.e("VodConfig", "Failed to parse spider jar: " + spider, e);
-            Logger.e("Error", e);
-        }
-        
+        parseSpider(spider);
+        Set<String> keys = new HashSet<>();
         for (JsonElement element : Json.safeListElement(object, "sites")) {
             try {
                 Site site = Site.objectFrom(element);
-                if (sites.contains(site)) continue;
+                if (!keys.add(site.getKey())) continue;
                 site.setApi(UrlUtil.convert(site.getApi()));
                 site.setExt(UrlUtil.convert(site.getExt()));
                 site.setJar(parseJar(site, spider));
-                sites.add(site.trans().sync());
+                sites.add(site.trans());
             } catch (Throwable e) {
                 android.util.Log.e("VodConfig", "Failed to add site: " + element, e);
                 Logger.e("Error", e);
                 // 继续处理下一个站点
             }
         }
+        initHome();
+    }
+
+    private void initSite(Snapshot snapshot) {
+        parseSpider(snapshot.getSpider());
+        sites.addAll(snapshot.getSites());
+        initHome();
+    }
+
+    private void initHome() {
+        Map<String, Site> items = new HashMap<>();
+        for (Site item : Site.findAll()) items.put(item.getKey(), item);
+        for (Site site : sites) site.sync(items.get(site.getKey()));
         for (Site site : sites) {
             if (site.getKey().equals(config.getHome())) {
                 setHome(site);
             }
         }
+        BaseLoader.get().prepare(sites);
+    }
+
+    private void parseSpider(String spider) {
+        try {
+            BaseLoader.get().parseJar(spider, true);
+        } catch (Throwable e) {
+            android.util.Log.e("VodConfig", "Failed to parse spider jar: " + spider, e);
+            Logger.e("Error", e);
+        }
+    }
+
+    private void saveSnapshot(Config config, String hash, JsonObject object, List<Site> items) {
+        App.execute(() -> Snapshot.save(config, hash, object, items));
     }
 
     private void initLive(JsonObject object) {
@@ -2,6 +2,7 @@ package com.fongmi.android.tv.api.loader;
 
 import android.text.TextUtils;
 
+import com.fongmi.android.tv.api.SpiderStats;
 import com.fongmi.android.tv.api.config.LiveConfig;
 import com.fongmi.android.tv.api.config.VodConfig;
 import com.fongmi.android.tv.bean.Live;
@@ -12,17 +13,25 @@ import com.github.catvod.utils.Util;
 
 import org.json.JSONObject;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import dalvik.system.DexClassLoader;
 
 public class BaseLoader {
 
+    private final ConcurrentHashMap<String, String> fingerprints;
     private final JarLoader jarLoader;
     private final PyLoader pyLoader;
     private final JsLoader jsLoader;
+    private List<Site> sites;
+    private List<Live> lives;
 
     private static class Loader {
         static volatile BaseLoader INSTANCE = new BaseLoader();
@@ -33,18 +42,61 @@ public class BaseLoader {
     }
 
     private BaseLoader() {
+        this.fingerprints = new ConcurrentHashMap<>();
         this.jarLoader = new JarLoader();
         this.pyLoader = new PyLoader();
         this.jsLoader = new JsLoader();
+        this.sites = new ArrayList<>();
+        this.lives = new ArrayList<>();
     }
 
     public void clear() {
+        this.fingerprints.clear();
         this.jarLoader.clear();
         this.pyLoader.clear();
         this.jsLoader.clear();
     }
 
+    /**
+     * 点播配置加载完成后调用，直播一侧沿用其上次加载完成的列表
+     */
+    public synchronized void retainSites(List<Site> sites) {
+        this.sites = new ArrayList<>(sites);
+        retain();
+    }
+
+    /**
+     * 直播配置加载完成后调用，点播一侧沿用其上次加载完成的列表
+     */
+    public synchronized void retainLives(List<Live> lives) {
+        this.lives = new ArrayList<>(lives);
+        retain();
+    }
+
+    private void retain() {
+        Set<String> jars = new HashSet<>();
+        Map<String, String> items = new HashMap<>();
+        for (Site site : sites) items.put(site.getKey(), fingerprint(site.getApi(), site.getExt(), site.getJar()));
+        for (Live live : lives) items.put(live.getName(), fingerprint(live.getApi(), live.getExt(), live.getJar()));
+        for (Site site : sites) jars.add(Util.md5(site.getJar()));
+        for (Live live : lives) jars.add(Util.md5(live.getJar()));
+        for (Map.Entry<String, String> entry : fingerprints.entrySet()) if (!entry.getValue().equals(items.get(entry.getKey()))) remove(entry.getKey());
+        jarLoader.retain(jars);
+    }
+
+    private void remove(String key) {
+        fingerprints.remove(key);
+        jarLoader.remove(key);
+        pyLoader.remove(key);
+        jsLoader.remove(key);
+    }
+
+    private String fingerprint(String api, String ext, String jar) {
+        return Util.md5(api + "\n" + ext + "\n" + jar);
+    }
+
     public Spider getSpider(String key, String api, String ext, String jar) {
+        if (!fingerprints.containsKey(key)) fingerprints.put(key, fingerprint(api, ext, jar));
         boolean js = api.contains(".js");
         boolean py = api.contains(".py");
         boolean csp = api.startsWith("csp_");
@@ -72,7 +124,18 @@ public class BaseLoader {
         else if (csp) jarLoader.setRecent(Util.md5(jar));
     }
 
-    public Object[] proxyLocal(Map<String, String> params) {
+    public Object[] proxyLocal(Map<String, String> params) throws Exception {
+        return SpiderStats.get().track(getProxyKey(params), SpiderStats.PROXY, () -> proxyInvoke(params));
+    }
+
+    private String getProxyKey(Map<String, String> params) {
+        if (params.containsKey("siteKey")) return params.get("siteKey");
+        if ("js".equals(params.get("do"))) return jsLoader.getRecent();
+        if ("py".equals(params.get("do"))) return pyLoader.getRecent();
+        return params.get("do");
+    }
+
+    private Object[] proxyInvoke(Map<String, String> params) {
         if ("js".equals(params.get("do"))) {
             return jsLoader.proxyInvoke(params);
         } else if ("py".equals(params.get("do"))) {
@@ -88,6 +151,16 @@ public class BaseLoader {
         if (recent) jarLoader.setRecent(Util.md5(jar));
     }
 
+    public void prepare(List<Site> sites) {
+        Map<String, List<String>> jars = new LinkedHashMap<>();
+        for (Site site : sites) {
+            if (TextUtils.isEmpty(site.getJar())) continue;
+            if (!jars.containsKey(site.getJar())) jars.put(site.getJar(), new ArrayList<>());
+            if (site.getApi().startsWith("csp_")) jars.get(site.getJar()).add(site.getApi().split("csp_")[1]);
+        }
+        jarLoader.prepare(jars);
+    }
+
     public DexClassLoader dex(String jar) {
         return jarLoader.dex(jar);
     }
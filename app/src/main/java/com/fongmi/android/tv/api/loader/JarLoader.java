@@ -9,6 +9,7 @@ import com.github.catvod.crawler.Spider;
 import com.github.catvod.crawler.SpiderNull;
 import com.github.catvod.net.OkHttp;
 import com.github.catvod.utils.Path;
+import com.github.catvod.utils.Prefers;
 import com.github.catvod.utils.Util;
 
 import org.json.JSONObject;
@@ -16,9 +17,15 @@ import org.json.JSONObject;
 import java.io.File;
 import java.lang.reflect.Method;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import dalvik.system.DexClassLoader;
 
@@ -27,12 +34,17 @@ public class JarLoader {
     private final ConcurrentHashMap<String, DexClassLoader> loaders;
     private final ConcurrentHashMap<String, Method> methods;
     private final ConcurrentHashMap<String, Spider> spiders;
+    private final ConcurrentHashMap<String, Object> locks;
+    private final ThreadPoolExecutor executor;
     private String recent;
 
     public JarLoader() {
         loaders = new ConcurrentHashMap<>();
         methods = new ConcurrentHashMap<>();
         spiders = new ConcurrentHashMap<>();
+        locks = new ConcurrentHashMap<>();
+        executor = new ThreadPoolExecutor(3, 3, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        executor.allowCoreThreadTimeOut(true);
     }
 
     public void clear() {
@@ -40,6 +52,48 @@ public class JarLoader {
         loaders.clear();
         methods.clear();
         spiders.clear();
+        locks.clear();
+        App.execute(this::prune);
+    }
+
+    /**
+     * 删除已没有任何地址指向的 jar 文件
+     */
+    private synchronized void prune() {
+        Set<String> names = new HashSet<>();
+        for (Map.Entry<String, ?> entry : Prefers.getPrefers().getAll().entrySet()) {
+            if (!entry.getKey().startsWith("jar_") || !(entry.getValue() instanceof String)) continue;
+            names.add(entry.getKey().substring(4).concat(".jar"));
+            names.add(getFile((String) entry.getValue()).getName());
+        }
+        for (File file : Path.list(Path.jar())) if (file.getName().matches("[0-9a-f]{32}\\.jar") && !names.contains(file.getName())) Path.clear(file);
+    }
+
+    public void remove(String key) {
+        for (String spKey : spiders.keySet()) if (spKey.equals(key) || (spKey.length() == key.length() + 32 && spKey.endsWith(key))) destroy(spKey);
+    }
+
+    public void retain(Set<String> jars) {
+        if (recent != null) jars.add(recent);
+        for (String jaKey : loaders.keySet()) if (!jars.contains(jaKey)) release(jaKey);
+        App.execute(this::prune);
+    }
+
+    private void evict(String jaKey) {
+        loaders.remove(jaKey);
+        methods.remove(jaKey);
+        for (String spKey : spiders.keySet()) if (spKey.length() > 32 && spKey.startsWith(jaKey)) destroy(spKey);
+    }
+
+    private void release(String jaKey) {
+        evict(jaKey);
+        locks.remove(jaKey);
+    }
+
+    private void destroy(String spKey) {
+        Spider spider = spiders.remove(spKey);
+        if (spider != null) App.execute(spider::destroy);
+        locks.remove(spKey);
     }
 
     public void setRecent(String recent) {
@@ -76,6 +130,7 @@ public class JarLoader {
         try {
             Class<?> clz = loaders.get(key).loadClass("com.github.catvod.spider.Proxy");
             Method method = clz.getMethod("proxy", Map.class);
+            method.setAccessible(true);
             methods.put(key, method);
         } catch (Throwable e) {
             Logger.e("Error", e);
@@ -84,27 +139,93 @@ public class JarLoader {
 
     private File download(String url) {
         try {
-            return Path.write(Path.jar(url), OkHttp.bytes(url));
+            byte[] data = OkHttp.bytes(url);
+            if (!verify(data)) return cached(url);
+            return save(url, data);
         } catch (Exception e) {
-            return Path.jar(url);
+            return cached(url);
         }
     }
 
-    public synchronized void parseJar(String key, String jar) {
+    private synchronized File save(String url, byte[] data) {
+        String hash = Util.md5(data);
+        File file = getFile(hash);
+        if (file.length() != data.length) Path.write(file, data);
+        Prefers.put(getHashKey(url), hash);
+        return file;
+    }
+
+    private File cached(String url) {
+        String hash = Prefers.getString(getHashKey(url));
+        File file = hash.isEmpty() ? null : getFile(hash);
+        return file != null && file.exists() ? file : Path.jar(url);
+    }
+
+    private File getFile(String hash) {
+        return new File(Path.jar(), hash.toLowerCase().concat(".jar"));
+    }
+
+    private String getHashKey(String url) {
+        return "jar_" + Util.md5(url);
+    }
+
+    private boolean verify(byte[] data) {
+        return data.length > 4 && data[0] == 'P' && data[1] == 'K';
+    }
+
+    public void prepare(Map<String, List<String>> jars) {
+        for (Map.Entry<String, List<String>> entry : jars.entrySet()) {
+            executor.execute(() -> prepare(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    private void prepare(String jar, List<String> classes) {
+        String key = Util.md5(jar);
+        if (loaders.containsKey(key)) refresh(key, jar);
+        else parseJar(key, jar);
+        DexClassLoader loader = loaders.get(key);
+        if (loader == null) return;
+        for (String name : classes) {
+            try {
+                loader.loadClass("com.github.catvod.spider." + name);
+            } catch (Throwable ignored) {
+            }
+        }
+    }
+
+    private void refresh(String key, String jar) {
+        String url = jar.split(";md5;")[0];
+        if (jar.contains(";md5;") || !url.startsWith("http")) return;
+        String hash = Prefers.getString(getHashKey(url));
+        File file = download(url);
+        if (hash.isEmpty() || file.equals(getFile(hash)) || !file.exists()) return;
+        synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+            evict(key);
+            load(key, file);
+        }
+    }
+
+    public void parseJar(String key, String jar) {
+        synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+            doParseJar(key, jar);
+        }
+    }
+
+    private void doParseJar(String key, String jar) {
         try {
             if (loaders.containsKey(key)) return;
             String[] texts = jar.split(";md5;");
             String md5 = texts.length > 1 ? texts[1].trim() : "";
             if (md5.startsWith("http")) md5 = OkHttp.string(md5).trim();
             jar = texts[0];
-            if (!md5.isEmpty() && Util.equals(jar, md5)) {
-                load(key, Path.jar(jar));
+            if (!md5.isEmpty() && getFile(md5).exists()) {
+                load(key, getFile(md5));
             } else if (jar.startsWith("http")) {
                 load(key, download(jar));
             } else if (jar.startsWith("file")) {
                 load(key, Path.local(jar));
             } else if (jar.startsWith("assets")) {
-                parseJar(key, UrlUtil.convert(jar));
+                doParseJar(key, UrlUtil.convert(jar));
             }
         } catch (Throwable e) {
             android.util.Log.e("JarLoader", "Failed to parse jar for key: " + key + ", jar: " + jar, e);
@@ -129,10 +250,13 @@ public class JarLoader {
             String spKey = jaKey + key;
             if (spiders.containsKey(spKey)) return spiders.get(spKey);
             if (!loaders.containsKey(jaKey)) parseJar(jaKey, jar);
-            Spider spider = (Spider) loaders.get(jaKey).loadClass("com.github.catvod.spider." + api.split("csp_")[1]).newInstance();
-            spider.init(App.get(), ext);
-            spiders.put(spKey, spider);
-            return spider;
+            synchronized (locks.computeIfAbsent(spKey, k -> new Object())) {
+                if (spiders.containsKey(spKey)) return spiders.get(spKey);
+                Spider spider = (Spider) loaders.get(jaKey).loadClass("com.github.catvod.spider." + api.split("csp_")[1]).newInstance();
+                spider.init(App.get(), ext);
+                spiders.put(spKey, spider);
+                return spider;
+            }
         } catch (Throwable e) {
             Logger.e("Error", e);
             return new SpiderNull();
@@ -152,7 +276,8 @@ public class JarLoader {
     }
 
     public Object[] proxyInvoke(Map<String, String> params) {
-        Object[] result = proxyInvoke(methods.get(recent), params);
+        if (methods.isEmpty()) return null;
+        Object[] result = recent == null ? null : proxyInvoke(methods.get(recent), params);
         return result != null ? result : tryOthers(params);
     }
 
@@ -167,6 +292,7 @@ public class JarLoader {
 
     private Object[] proxyInvoke(Method method, Map<String, String> params) {
         try {
+            if (method == null) return null;
             return (Object[]) method.invoke(null, params);
         } catch (Throwable e) {
             Logger.e("Error", e);
@@ -11,15 +11,28 @@ import java.util.concurrent.ConcurrentHashMap;
 public class JsLoader {
 
     private final ConcurrentHashMap<String, Spider> spiders;
+    private final ConcurrentHashMap<String, Object> locks;
     private String recent;
 
     public JsLoader() {
         spiders = new ConcurrentHashMap<>();
+        locks = new ConcurrentHashMap<>();
     }
 
     public void clear() {
         for (Spider spider : spiders.values()) App.execute(spider::destroy);
         spiders.clear();
+        locks.clear();
+    }
+
+    public void remove(String key) {
+        Spider spider = spiders.remove(key);
+        if (spider != null) App.execute(spider::destroy);
+        locks.remove(key);
+    }
+
+    public String getRecent() {
+        return recent;
     }
 
     public void setRecent(String recent) {
@@ -29,10 +42,13 @@ public class JsLoader {
     public Spider getSpider(String key, String api, String ext, String jar) {
         try {
             if (spiders.containsKey(key)) return spiders.get(key);
-            Spider spider = new com.fongmi.quickjs.crawler.Spider(key, api, BaseLoader.get().dex(jar));
-            spider.init(App.get(), ext);
-            spiders.put(key, spider);
-            return spider;
+            synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+                if (spiders.containsKey(key)) return spiders.get(key);
+                Spider spider = new com.fongmi.quickjs.crawler.Spider(key, api, BaseLoader.get().dex(jar));
+                spider.init(App.get(), ext);
+                spiders.put(key, spider);
+                return spider;
+            }
         } catch (Throwable e) {
             Logger.e("Error", e);
             return new SpiderNull();
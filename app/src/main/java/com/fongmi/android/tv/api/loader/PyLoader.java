@@ -22,6 +22,15 @@ public class PyLoader {
         spiders.clear();
     }
 
+    public void remove(String key) {
+        Spider spider = spiders.remove(key);
+        if (spider != null) App.execute(spider::destroy);
+    }
+
+    public String getRecent() {
+        return recent;
+    }
+
     public void setRecent(String recent) {
         this.recent = recent;
     }
@@ -0,0 +1,87 @@
+package com.fongmi.android.tv.api.loader;
+
+import com.fongmi.android.tv.api.config.VodConfig;
+import com.fongmi.android.tv.bean.History;
+import com.fongmi.android.tv.bean.Keep;
+import com.fongmi.android.tv.bean.Site;
+import com.github.catvod.utils.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 爬虫预热 - 配置加载后按首页、常用站点的顺序在后台初始化爬虫
+ */
+public class SpiderWarmer {
+
+    private static final int LIMIT = 8;
+
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger generation;
+
+    private static class Loader {
+        static volatile SpiderWarmer INSTANCE = new SpiderWarmer();
+    }
+
+    public static SpiderWarmer get() {
+        return Loader.INSTANCE;
+    }
+
+    private SpiderWarmer() {
+        executor = new ThreadPoolExecutor(2, 2, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        executor.allowCoreThreadTimeOut(true);
+        generation = new AtomicInteger();
+    }
+
+    /**
+     * 在配置加载线程调用，sites 只在此处读取；重新加载或取消后，已排队的任务不再初始化
+     */
+    public void warm(Site home, List<Site> sites) {
+        int id = reset();
+        for (Site site : rank(home, sites)) executor.execute(() -> init(id, site));
+    }
+
+    public void cancel() {
+        reset();
+    }
+
+    private int reset() {
+        executor.getQueue().clear();
+        return generation.incrementAndGet();
+    }
+
+    private void init(int id, Site site) {
+        try {
+            if (id == generation.get()) site.spider();
+        } catch (Throwable e) {
+            Logger.e("Error", e);
+        }
+    }
+
+    private List<Site> rank(Site home, List<Site> sites) {
+        Map<String, Integer> counts = getCounts();
+        List<Site> items = new ArrayList<>();
+        for (Site site : sites) if (site.getType() == 3 && !site.equals(home) && counts.containsKey(site.getKey())) items.add(site);
+        items.sort((o1, o2) -> Integer.compare(counts.get(o2.getKey()), counts.get(o1.getKey())));
+        if (home.getType() == 3) items.add(0, home);
+        return items.size() > LIMIT ? items.subList(0, LIMIT) : items;
+    }
+
+    private Map<String, Integer> getCounts() {
+        Map<String, Integer> counts = new HashMap<>();
+        try {
+            int cid = VodConfig.getCid();
+            for (History item : History.get(cid)) counts.merge(item.getSiteKey(), 1, Integer::sum);
+            for (Keep item : Keep.getVod()) if (item.getCid() == cid) counts.merge(item.getSiteKey(), 1, Integer::sum);
+        } catch (Throwable e) {
+            Logger.e("Error", e);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,219 @@
+package com.fongmi.android.tv.bean;
+
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import com.fongmi.android.tv.api.config.VodConfig;
+import com.fongmi.android.tv.db.AppDatabase;
+import com.fongmi.android.tv.db.dao.CatalogDao;
+import com.fongmi.android.tv.utils.PinyinTrie;
+import com.fongmi.android.tv.utils.PinyinUtil;
+import com.github.catvod.utils.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 本地片库 - 观看记录、收藏与最近打开的详情，由 CatalogFts 建立全文索引
+ * 记录与收藏的增删改由数据库触发器同步，索引词在 Java 中生成：简体、各后缀、全拼与首字母
+ */
+@Entity(indices = @Index(value = {"source", "cid", "key"}, unique = true))
+public class Catalog {
+
+    public static final int HISTORY = 0;
+    public static final int KEEP = 1;
+    public static final int SEEN = 2;
+
+    private static final int SEEN_LIMIT = 500;
+    private static final int LIMIT = 50;
+    private static final int SUFFIX = 32;
+
+    @PrimaryKey(autoGenerate = true)
+    private int id;
+    private int source;
+    private int cid;
+    @NonNull
+    private String key;
+    private String vodName;
+    private String vodPic;
+    private String tokens;
+    private long time;
+
+    public Catalog(int source, int cid, @NonNull String key) {
+        this.source = source;
+        this.cid = cid;
+        this.key = key;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    public void setSource(int source) {
+        this.source = source;
+    }
+
+    public int getCid() {
+        return cid;
+    }
+
+    public void setCid(int cid) {
+        this.cid = cid;
+    }
+
+    @NonNull
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(@NonNull String key) {
+        this.key = key;
+    }
+
+    public String getVodName() {
+        return TextUtils.isEmpty(vodName) ? "" : vodName;
+    }
+
+    public void setVodName(String vodName) {
+        this.vodName = vodName;
+    }
+
+    public String getVodPic() {
+        return TextUtils.isEmpty(vodPic) ? "" : vodPic;
+    }
+
+    public void setVodPic(String vodPic) {
+        this.vodPic = vodPic;
+    }
+
+    public String getTokens() {
+        return tokens;
+    }
+
+    public void setTokens(String tokens) {
+        this.tokens = tokens;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public void setTime(long time) {
+        this.time = time;
+    }
+
+    private Vod toVod() {
+        String[] splits = getKey().split(AppDatabase.SYMBOL);
+        if (splits.length < 2) return null;
+        Site site = VodConfig.get().getSite(splits[0]);
+        if (site.isEmpty()) return null;
+        Vod vod = new Vod();
+        vod.setVodId(splits[1]);
+        vod.setVodName(getVodName());
+        vod.setVodPic(getVodPic());
+        vod.setSite(site);
+        return vod;
+    }
+
+    private static CatalogDao getDao() {
+        return AppDatabase.get().getCatalogDao();
+    }
+
+    /**
+     * 记录最近打开的详情，只保留最新的 SEEN_LIMIT 条
+     */
+    public static Result seen(String key, Result result) {
+        if (result.getList().isEmpty() || VodConfig.get().getSite(key).isEmpty()) return result;
+        Vod vod = result.getList().get(0);
+        if (TextUtils.isEmpty(vod.getVodId()) || vod.getVodName().isEmpty()) return result;
+        try {
+            save(VodConfig.getCid(), key + AppDatabase.SYMBOL + vod.getVodId(), vod.getVodName(), vod.getVodPic());
+        } catch (Exception e) {
+            Logger.e("Error", e);
+        }
+        return result;
+    }
+
+    private static void save(int cid, String key, String vodName, String vodPic) {
+        Catalog item = getDao().find(SEEN, cid, key);
+        if (item == null) item = new Catalog(SEEN, cid, key);
+        if (!vodName.equals(item.getVodName())) item.setTokens(null);
+        item.setVodName(vodName);
+        item.setVodPic(vodPic);
+        item.setTime(System.currentTimeMillis());
+        if (item.getId() > 0) getDao().update(item);
+        else getDao().insert(item);
+        getDao().trim(SEEN, SEEN_LIMIT);
+    }
+
+    /**
+     * 为触发器新加入或改名的条目生成索引词，并加入联想词典
+     */
+    public static synchronized void sync() {
+        List<Catalog> items = getDao().findPending();
+        if (items.isEmpty()) return;
+        AppDatabase.get().runInTransaction(() -> {
+            for (Catalog item : items) getDao().setTokens(item.getId(), tokens(item.getVodName()));
+        });
+        for (Catalog item : items) PinyinTrie.get().add(item);
+    }
+
+    /**
+     * 搜索本地片库，支持前缀、子串、全拼、首字母与繁简混输
+     */
+    public static List<Vod> search(String keyword) {
+        String text = PinyinUtil.normalize(keyword);
+        if (text.isEmpty()) return Collections.emptyList();
+        try {
+            sync();
+            Set<String> keys = new HashSet<>();
+            List<Vod> items = new ArrayList<>();
+            for (Catalog item : getDao().search(VodConfig.getCid(), text + "*", LIMIT)) {
+                Vod vod = keys.add(item.getKey()) ? item.toVod() : null;
+                if (vod != null) items.add(vod);
+            }
+            return items;
+        } catch (Exception e) {
+            Logger.e("Error", e);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * 索引词：标题各后缀（子串匹配）、从各音节开始的全拼与首字母（拼音匹配）
+     */
+    static String tokens(String name) {
+        String text = PinyinUtil.normalize(name);
+        if (text.length() > SUFFIX) text = text.substring(0, SUFFIX);
+        List<String> pinyin = PinyinUtil.split(text);
+        Set<String> tokens = new LinkedHashSet<>();
+        for (int i = 0; i < text.length(); i++) {
+            StringBuilder full = new StringBuilder();
+            StringBuilder initials = new StringBuilder();
+            for (String item : pinyin.subList(i, pinyin.size())) {
+                full.append(item);
+                if (!item.isEmpty()) initials.append(item.charAt(0));
+            }
+            tokens.add(text.substring(i));
+            tokens.add(full.toString());
+            tokens.add(initials.toString());
+        }
+        return TextUtils.join(" ", tokens);
+    }
+}
@@ -0,0 +1,19 @@
+package com.fongmi.android.tv.bean;
+
+import androidx.room.Entity;
+import androidx.room.Fts4;
+
+@Fts4(contentEntity = Catalog.class)
+@Entity
+public class CatalogFts {
+
+    private String tokens;
+
+    public String getTokens() {
+        return tokens;
+    }
+
+    public void setTokens(String tokens) {
+        this.tokens = tokens;
+    }
+}
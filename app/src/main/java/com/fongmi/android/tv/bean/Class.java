@@ -5,26 +5,24 @@ import android.os.Parcelable;
 import android.text.TextUtils;
 
 import com.fongmi.android.tv.App;
+import com.fongmi.android.tv.utils.XmlUtil;
 import com.github.catvod.utils.Trans;
 import com.google.gson.annotations.SerializedName;
 
-import org.simpleframework.xml.Attribute;
-import org.simpleframework.xml.Root;
-import org.simpleframework.xml.Text;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 
-@Root(strict = false)
 public class Class implements Parcelable {
 
-    @Attribute(name = "id", required = false)
     @SerializedName(value = "type_id", alternate = "id")
     private String typeId;
 
-    @Text
     @SerializedName(value = "type_name", alternate = "name")
     private String typeName;
 
@@ -53,6 +51,13 @@ public class Class implements Parcelable {
         return App.gson().fromJson(json, Class.class);
     }
 
+    public static Class fromXml(XmlPullParser parser) throws XmlPullParserException, IOException {
+        Class item = new Class();
+        item.typeId = XmlUtil.attr(parser, "id");
+        item.typeName = XmlUtil.text(parser);
+        return item;
+    }
+
     public String getTypeId() {
         return TextUtils.isEmpty(typeId) ? "" : typeId;
     }
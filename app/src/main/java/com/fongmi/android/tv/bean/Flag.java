@@ -8,12 +8,14 @@ import androidx.annotation.NonNull;
 
 import com.fongmi.android.tv.App;
 import com.fongmi.android.tv.utils.Util;
+import com.fongmi.android.tv.utils.XmlUtil;
 import com.github.catvod.utils.Trans;
 import com.google.gson.annotations.SerializedName;
 
-import org.simpleframework.xml.Attribute;
-import org.simpleframework.xml.Text;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -21,12 +23,10 @@ import java.util.Locale;
 
 public class Flag implements Parcelable {
 
-    @Attribute(name = "flag", required = false)
     @SerializedName("flag")
     private String flag;
     private String show;
 
-    @Text
     private String urls;
 
     @SerializedName("episodes")
@@ -39,6 +39,13 @@ public class Flag implements Parcelable {
         return new Flag(flag);
     }
 
+    public static Flag fromXml(XmlPullParser parser) throws XmlPullParserException, IOException {
+        Flag item = new Flag();
+        item.flag = XmlUtil.attr(parser, "flag");
+        item.urls = XmlUtil.text(parser);
+        return item;
+    }
+
     public Flag() {
         this.episodes = new ArrayList<>();
         this.position = -1;
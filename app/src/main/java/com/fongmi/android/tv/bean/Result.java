@@ -12,18 +12,23 @@ import com.fongmi.android.tv.gson.DanmakuAdapter;
 import com.fongmi.android.tv.gson.FilterAdapter;
 import com.fongmi.android.tv.gson.MsgAdapter;
 import com.fongmi.android.tv.gson.UrlAdapter;
+import com.fongmi.android.tv.utils.XmlUtil;
 import com.github.catvod.utils.Json;
 import com.github.catvod.utils.Trans;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
 import com.google.gson.annotations.JsonAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.MalformedJsonException;
 
 import org.json.JSONObject;
-import org.simpleframework.xml.ElementList;
-import org.simpleframework.xml.Path;
-import org.simpleframework.xml.Root;
-import org.simpleframework.xml.core.Persister;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -31,16 +36,11 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
-@Root(name = "rss", strict = false)
 public class Result implements Parcelable {
 
-    @Path("class")
-    @ElementList(entry = "ty", required = false, inline = true)
     @SerializedName("class")
     private List<Class> types;
 
-    @Path("list")
-    @ElementList(entry = "video", required = false, inline = true)
     @SerializedName("list")
     private List<Vod> list;
 
@@ -97,23 +97,78 @@ public class Result implements Parcelable {
         }
     }
 
+    /**
+     * 格式错误返回空结果，读取中断（超时、断线）抛出 IOException 交由调用方按错误处理
+     */
+    public static Result objectFrom(Reader reader) throws IOException {
+        try {
+            return App.gson().fromJson(reader, Result.class);
+        } catch (JsonParseException e) {
+            if (isReadError(e.getCause())) throw (IOException) e.getCause();
+            return empty();
+        } catch (IllegalStateException e) {
+            return empty();
+        }
+    }
+
+    private static boolean isReadError(Throwable e) {
+        return e instanceof IOException && !(e instanceof MalformedJsonException) && !(e instanceof EOFException);
+    }
+
     public static Result fromJson(String str) {
         Result result = objectFrom(str);
         return result == null ? empty() : result.trans();
     }
 
+    public static Result fromJson(Reader reader) throws IOException {
+        Result result = objectFrom(reader);
+        return result == null ? empty() : result.trans();
+    }
+
     public static Result fromXml(String str) {
         try {
-            return new Persister().read(Result.class, str, false).trans();
+            return fromXml(new StringReader(str));
+        } catch (IOException e) {
+            return empty();
+        }
+    }
+
+    public static Result fromXml(Reader reader) throws IOException {
+        try {
+            return readXml(XmlUtil.parser(reader)).trans();
+        } catch (IOException e) {
+            throw e;
         } catch (Exception e) {
             return empty();
         }
     }
 
+    private static Result readXml(XmlPullParser parser) throws XmlPullParserException, IOException {
+        Result result = new Result();
+        while (parser.next() != XmlPullParser.END_DOCUMENT) {
+            if (parser.getEventType() != XmlPullParser.START_TAG || parser.getDepth() != 2) continue;
+            int depth = parser.getDepth();
+            if ("class".equals(parser.getName())) {
+                if (result.types == null) result.types = new ArrayList<>();
+                while (XmlUtil.child(parser, depth)) if ("ty".equals(parser.getName())) result.types.add(Class.fromXml(parser));
+            } else if ("list".equals(parser.getName())) {
+                if (result.list == null) result.list = new ArrayList<>();
+                String pagecount = XmlUtil.attr(parser, "pagecount");
+                if (!TextUtils.isEmpty(pagecount) && TextUtils.isDigitsOnly(pagecount)) result.pagecount = Integer.parseInt(pagecount);
+                while (XmlUtil.child(parser, depth)) if ("video".equals(parser.getName())) result.list.add(Vod.fromXml(parser));
+            }
+        }
+        return result;
+    }
+
     public static Result fromType(int type, String str) {
         return type == 0 ? fromXml(str) : fromJson(str);
     }
 
+    public static Result fromType(int type, Reader reader) throws IOException {
+        return type == 0 ? fromXml(reader) : fromJson(reader);
+    }
+
     public static Result fromObject(JSONObject object) {
         return object == null ? empty() : objectFrom(object.toString());
     }
@@ -12,6 +12,7 @@ import androidx.room.PrimaryKey;
 
 import com.fongmi.android.tv.App;
 import com.fongmi.android.tv.Constant;
+import com.fongmi.android.tv.api.config.Snapshot;
 import com.fongmi.android.tv.api.loader.BaseLoader;
 import com.fongmi.android.tv.db.AppDatabase;
 import com.fongmi.android.tv.gson.ExtAdapter;
@@ -23,6 +24,9 @@ import com.google.gson.JsonElement;
 import com.google.gson.annotations.JsonAdapter;
 import com.google.gson.annotations.SerializedName;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -89,6 +93,10 @@ public class Site implements Parcelable {
     @SerializedName("quickSearch")
     private Integer quickSearch;
 
+    @Ignore
+    @SerializedName("searchTtl")
+    private Integer searchTtl;
+
     @Ignore
     @SerializedName("categories")
     private List<String> categories;
@@ -253,6 +261,10 @@ public class Site implements Parcelable {
         return quickSearch == null ? 1 : quickSearch;
     }
 
+    public Integer getSearchTtl() {
+        return searchTtl == null ? -1 : searchTtl;
+    }
+
     public List<String> getCategories() {
         return categories == null ? Collections.emptyList() : categories;
     }
@@ -339,7 +351,10 @@ public class Site implements Parcelable {
     }
 
     public Site sync() {
-        Site item = find(getKey());
+        return sync(find(getKey()));
+    }
+
+    public Site sync(Site item) {
         if (item == null) return this;
         if (getChangeable() != 0) setChangeable(Math.max(1, item.getChangeable()));
         if (getSearchable() != 0) setSearchable(Math.max(1, item.getSearchable()));
@@ -359,6 +374,10 @@ public class Site implements Parcelable {
         return AppDatabase.get().getSiteDao().find(key);
     }
 
+    public static List<Site> findAll() {
+        return AppDatabase.get().getSiteDao().findAll();
+    }
+
     public void save() {
         AppDatabase.get().getSiteDao().insertOrUpdate(this);
     }
@@ -371,6 +390,56 @@ public class Site implements Parcelable {
         return getKey().equals(it.getKey());
     }
 
+    public void write(DataOutput out) throws IOException {
+        Snapshot.writeString(out, key);
+        Snapshot.writeString(out, name);
+        Snapshot.writeString(out, api);
+        Snapshot.writeString(out, ext);
+        Snapshot.writeString(out, jar);
+        Snapshot.writeString(out, click);
+        Snapshot.writeString(out, playUrl);
+        Snapshot.writeInteger(out, type);
+        Snapshot.writeInteger(out, hide);
+        Snapshot.writeInteger(out, indexs);
+        Snapshot.writeInteger(out, timeout);
+        Snapshot.writeInteger(out, searchable);
+        Snapshot.writeInteger(out, changeable);
+        Snapshot.writeInteger(out, quickSearch);
+        Snapshot.writeInteger(out, searchTtl);
+        out.writeInt(categories == null ? -1 : categories.size());
+        if (categories != null) for (String category : categories) Snapshot.writeString(out, category);
+        Snapshot.writeString(out, header == null ? null : header.toString());
+        out.writeBoolean(style != null);
+        if (style != null) Snapshot.writeString(out, style.getType());
+        if (style != null) out.writeFloat(style.getRatio());
+    }
+
+    public static Site read(DataInput in) throws IOException {
+        Site site = new Site();
+        site.key = Snapshot.readString(in);
+        site.name = Snapshot.readString(in);
+        site.api = Snapshot.readString(in);
+        site.ext = Snapshot.readString(in);
+        site.jar = Snapshot.readString(in);
+        site.click = Snapshot.readString(in);
+        site.playUrl = Snapshot.readString(in);
+        site.type = Snapshot.readInteger(in);
+        site.hide = Snapshot.readInteger(in);
+        site.indexs = Snapshot.readInteger(in);
+        site.timeout = Snapshot.readInteger(in);
+        site.searchable = Snapshot.readInteger(in);
+        site.changeable = Snapshot.readInteger(in);
+        site.quickSearch = Snapshot.readInteger(in);
+        site.searchTtl = Snapshot.readInteger(in);
+        int size = in.readInt();
+        if (size >= 0) site.categories = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) site.categories.add(Snapshot.readString(in));
+        String header = Snapshot.readString(in);
+        if (header != null) site.header = Json.parse(header);
+        if (in.readBoolean()) site.style = new Style(Snapshot.readString(in), in.readFloat());
+        return site;
+    }
+
     @Override
     public int describeContents() {
         return 0;
@@ -390,6 +459,7 @@ public class Site implements Parcelable {
         dest.writeValue(this.timeout);
         dest.writeValue(this.searchable);
         dest.writeValue(this.changeable);
+        dest.writeValue(this.searchTtl);
         dest.writeStringList(this.categories);
         dest.writeParcelable(this.style, flags);
         dest.writeByte(this.activated ? (byte) 1 : (byte) 0);
@@ -408,6 +478,7 @@ public class Site implements Parcelable {
         this.timeout = (Integer) in.readValue(Integer.class.getClassLoader());
         this.searchable = (Integer) in.readValue(Integer.class.getClassLoader());
         this.changeable = (Integer) in.readValue(Integer.class.getClassLoader());
+        this.searchTtl = (Integer) in.readValue(Integer.class.getClassLoader());
         this.categories = in.createStringArrayList();
         this.style = in.readParcelable(Style.class.getClassLoader());
         this.activated = in.readByte() != 0;
@@ -7,60 +7,49 @@ import android.view.View;
 
 import com.fongmi.android.tv.App;
 import com.fongmi.android.tv.utils.Sniffer;
+import com.fongmi.android.tv.utils.XmlUtil;
 import com.github.catvod.utils.Trans;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
 
-import org.simpleframework.xml.Element;
-import org.simpleframework.xml.ElementList;
-import org.simpleframework.xml.Path;
-import org.simpleframework.xml.Root;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
-@Root(strict = false)
 public class Vod implements Parcelable {
 
-    @Element(name = "id", required = false)
     @SerializedName("vod_id")
     private String vodId;
 
-    @Element(name = "name", required = false)
     @SerializedName("vod_name")
     private String vodName;
 
-    @Element(name = "type", required = false)
     @SerializedName("type_name")
     private String typeName;
 
-    @Element(name = "pic", required = false)
     @SerializedName("vod_pic")
     private String vodPic;
 
-    @Element(name = "note", required = false)
     @SerializedName("vod_remarks")
     private String vodRemarks;
 
-    @Element(name = "year", required = false)
     @SerializedName("vod_year")
     private String vodYear;
 
-    @Element(name = "area", required = false)
     @SerializedName("vod_area")
     private String vodArea;
 
-    @Element(name = "director", required = false)
     @SerializedName("vod_director")
     private String vodDirector;
 
-    @Element(name = "actor", required = false)
     @SerializedName("vod_actor")
     private String vodActor;
 
-    @Element(name = "des", required = false)
     @SerializedName("vod_content")
     private String vodContent;
 
@@ -94,8 +83,6 @@ public class Vod implements Parcelable {
     @SerializedName("ratio")
     private float ratio;
 
-    @Path("dl")
-    @ElementList(entry = "dd", required = false, inline = true)
     private List<Flag> vodFlags;
 
     private Site site;
@@ -103,12 +90,60 @@ public class Vod implements Parcelable {
     // 搜索相关性分数（临时使用，不参与序列化）
     private int searchScore;
 
+    // 跨站聚类键与同一影片的其它来源（临时使用，不参与序列化）
+    private transient String cluster;
+    private transient List<Vod> sources;
+
     public static List<Vod> arrayFrom(String str) {
         Type listType = new TypeToken<List<Vod>>() {}.getType();
         List<Vod> items = App.gson().fromJson(str, listType);
         return items == null ? Collections.emptyList() : items;
     }
 
+    public static Vod fromXml(XmlPullParser parser) throws XmlPullParserException, IOException {
+        Vod item = new Vod();
+        int depth = parser.getDepth();
+        while (XmlUtil.child(parser, depth)) {
+            switch (parser.getName()) {
+                case "id":
+                    item.vodId = XmlUtil.text(parser);
+                    break;
+                case "name":
+                    item.vodName = XmlUtil.text(parser);
+                    break;
+                case "type":
+                    item.typeName = XmlUtil.text(parser);
+                    break;
+                case "pic":
+                    item.vodPic = XmlUtil.text(parser);
+                    break;
+                case "note":
+                    item.vodRemarks = XmlUtil.text(parser);
+                    break;
+                case "year":
+                    item.vodYear = XmlUtil.text(parser);
+                    break;
+                case "area":
+                    item.vodArea = XmlUtil.text(parser);
+                    break;
+                case "director":
+                    item.vodDirector = XmlUtil.text(parser);
+                    break;
+                case "actor":
+                    item.vodActor = XmlUtil.text(parser);
+                    break;
+                case "des":
+                    item.vodContent = XmlUtil.text(parser);
+                    break;
+                case "dl":
+                    int dl = parser.getDepth();
+                    while (XmlUtil.child(parser, dl)) if ("dd".equals(parser.getName())) item.getVodFlags().add(Flag.fromXml(parser));
+                    break;
+            }
+        }
+        return item;
+    }
+
     public Vod() {
     }
 
@@ -193,6 +228,23 @@ public class Vod implements Parcelable {
         this.searchScore = score;
     }
 
+    public String getCluster() {
+        return cluster;
+    }
+
+    public void setCluster(String cluster) {
+        this.cluster = cluster;
+    }
+
+    public List<Vod> getSources() {
+        return sources == null ? Collections.emptyList() : sources;
+    }
+
+    public void addSource(Vod item) {
+        if (sources == null) sources = new ArrayList<>();
+        sources.add(item);
+    }
+
     public Cate getCate() {
         return cate;
     }
@@ -233,6 +285,10 @@ public class Vod implements Parcelable {
         return getSite() == null ? "" : getSite().getName();
     }
 
+    public String getSourceName() {
+        return getSources().isEmpty() ? getSiteName() : getSiteName() + " +" + getSources().size();
+    }
+
     public String getSiteKey() {
         return getSite() == null ? "" : getSite().getKey();
     }
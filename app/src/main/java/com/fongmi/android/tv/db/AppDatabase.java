@@ -2,12 +2,16 @@ package com.fongmi.android.tv.db;
 
 import android.content.Context;
 
+import androidx.annotation.NonNull;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 
 import com.fongmi.android.tv.App;
 import com.fongmi.android.tv.bean.Backup;
+import com.fongmi.android.tv.bean.Catalog;
+import com.fongmi.android.tv.bean.CatalogFts;
 import com.fongmi.android.tv.bean.Config;
 import com.fongmi.android.tv.bean.Device;
 import com.fongmi.android.tv.bean.Download;
@@ -16,6 +20,7 @@ import com.fongmi.android.tv.bean.Keep;
 import com.fongmi.android.tv.bean.Live;
 import com.fongmi.android.tv.bean.Site;
 import com.fongmi.android.tv.bean.Track;
+import com.fongmi.android.tv.db.dao.CatalogDao;
 import com.fongmi.android.tv.db.dao.ConfigDao;
 import com.fongmi.android.tv.db.dao.DeviceDao;
 import com.fongmi.android.tv.db.dao.DownloadDao;
@@ -35,10 +40,10 @@ import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 
-@Database(entities = {Keep.class, Site.class, Live.class, Track.class, Config.class, Device.class, History.class, Download.class}, version = AppDatabase.VERSION)
+@Database(entities = {Keep.class, Site.class, Live.class, Track.class, Config.class, Device.class, History.class, Download.class, Catalog.class, CatalogFts.class}, version = AppDatabase.VERSION)
 public abstract class AppDatabase extends RoomDatabase {
 
-    public static final int VERSION = 34;
+    public static final int VERSION = 35;
     public static final String NAME = "tv";
     public static final String SYMBOL = "@@@";
 
@@ -98,6 +103,14 @@ public abstract class AppDatabase extends RoomDatabase {
                 .addMigrations(Migrations.MIGRATION_31_32)
                 .addMigrations(Migrations.MIGRATION_32_33)
                 .addMigrations(Migrations.MIGRATION_33_34)
+                .addMigrations(Migrations.MIGRATION_34_35)
+                .addCallback(new Callback() {
+                    @Override
+                    public void onOpen(@NonNull SupportSQLiteDatabase db) {
+                        Migrations.createCatalogTriggers(db);
+                        App.execute(Catalog::sync);
+                    }
+                })
                 .allowMainThreadQueries().fallbackToDestructiveMigration().build();
     }
 
@@ -116,4 +129,6 @@ public abstract class AppDatabase extends RoomDatabase {
     public abstract HistoryDao getHistoryDao();
 
     public abstract DownloadDao getDownloadDao();
+
+    public abstract CatalogDao getCatalogDao();
 }
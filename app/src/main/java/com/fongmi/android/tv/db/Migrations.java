@@ -38,4 +38,37 @@ public class Migrations {
             database.execSQL("CREATE TABLE IF NOT EXISTS Download (`id` TEXT NOT NULL PRIMARY KEY, `vodPic` TEXT, `vodName` TEXT, `vodId` TEXT, `url` TEXT, `header` TEXT, `createTime` INTEGER NOT NULL, `progress` INTEGER NOT NULL, `status` TEXT, `duration` INTEGER NOT NULL, `speed` INTEGER NOT NULL)");
         }
     };
+
+    public static final Migration MIGRATION_34_35 = new Migration(34, 35) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS Catalog (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `source` INTEGER NOT NULL, `cid` INTEGER NOT NULL, `key` TEXT NOT NULL, `vodName` TEXT, `vodPic` TEXT, `tokens` TEXT, `time` INTEGER NOT NULL)");
+            database.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_Catalog_source_cid_key` ON `Catalog` (`source`, `cid`, `key`)");
+            database.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `CatalogFts` USING FTS4(`tokens` TEXT, content=`Catalog`)");
+            database.execSQL("INSERT OR IGNORE INTO Catalog (`source`, `cid`, `key`, `vodName`, `vodPic`, `time`) SELECT 0, `cid`, `key`, `vodName`, `vodPic`, `createTime` FROM History");
+            database.execSQL("INSERT OR IGNORE INTO Catalog (`source`, `cid`, `key`, `vodName`, `vodPic`, `time`) SELECT 1, `cid`, `key`, `vodName`, `vodPic`, `createTime` FROM Keep WHERE type = 0");
+        }
+    };
+
+    /**
+     * 记录与收藏的增删改同步到 Catalog，索引词置空后由 Catalog.sync 补上
+     */
+    public static void createCatalogTriggers(@NonNull SupportSQLiteDatabase database) {
+        createCatalogTriggers(database, "History", 0, "");
+        createCatalogTriggers(database, "Keep", 1, "%1$s.type = 0");
+    }
+
+    private static void createCatalogTriggers(SupportSQLiteDatabase database, String table, int source, String filter) {
+        String match = "source = " + source + " AND cid = %1$s.cid AND `key` = %1$s.`key`";
+        String insert = "INSERT INTO Catalog (`source`, `cid`, `key`, `vodName`, `vodPic`, `time`) VALUES (" + source + ", NEW.cid, NEW.`key`, NEW.vodName, NEW.vodPic, NEW.createTime)";
+        String changed = "(OLD.cid IS NOT NEW.cid OR OLD.`key` IS NOT NEW.`key` OR OLD.vodName IS NOT NEW.vodName OR OLD.vodPic IS NOT NEW.vodPic)";
+        String update = "UPDATE Catalog SET cid = NEW.cid, `key` = NEW.`key`, vodName = NEW.vodName, vodPic = NEW.vodPic, tokens = CASE WHEN OLD.vodName IS NEW.vodName THEN tokens ELSE NULL END WHERE " + String.format(match, "OLD");
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS catalog_" + table + "_insert AFTER INSERT ON `" + table + "`" + when(filter, "NEW") + " BEGIN DELETE FROM Catalog WHERE " + String.format(match, "NEW") + "; " + insert + "; END");
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS catalog_" + table + "_update AFTER UPDATE ON `" + table + "` WHEN " + (filter.isEmpty() ? "" : String.format(filter, "NEW") + " AND ") + changed + " BEGIN " + update + "; END");
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS catalog_" + table + "_delete AFTER DELETE ON `" + table + "`" + when(filter, "OLD") + " BEGIN DELETE FROM Catalog WHERE " + String.format(match, "OLD") + "; END");
+    }
+
+    private static String when(String filter, String row) {
+        return filter.isEmpty() ? "" : " WHEN " + String.format(filter, row);
+    }
 }
@@ -0,0 +1,30 @@
+package com.fongmi.android.tv.db.dao;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+
+import com.fongmi.android.tv.bean.Catalog;
+
+import java.util.List;
+
+@Dao
+public abstract class CatalogDao extends BaseDao<Catalog> {
+
+    @Query("SELECT * FROM Catalog WHERE source = :source AND cid = :cid AND `key` = :key")
+    public abstract Catalog find(int source, int cid, String key);
+
+    @Query("SELECT * FROM Catalog WHERE cid = :cid ORDER BY time DESC")
+    public abstract List<Catalog> findAll(int cid);
+
+    @Query("SELECT * FROM Catalog WHERE tokens IS NULL")
+    public abstract List<Catalog> findPending();
+
+    @Query("SELECT Catalog.* FROM Catalog JOIN CatalogFts ON Catalog.id = CatalogFts.rowid WHERE CatalogFts MATCH :query AND Catalog.cid = :cid ORDER BY Catalog.source, Catalog.time DESC LIMIT :limit")
+    public abstract List<Catalog> search(int cid, String query, int limit);
+
+    @Query("UPDATE Catalog SET tokens = :tokens WHERE id = :id")
+    public abstract void setTokens(int id, String tokens);
+
+    @Query("DELETE FROM Catalog WHERE source = :source AND id NOT IN (SELECT id FROM Catalog WHERE source = :source ORDER BY time DESC LIMIT :limit)")
+    public abstract void trim(int source, int limit);
+}
@@ -1,32 +1,56 @@
 package com.fongmi.android.tv.gson;
 
+import com.fongmi.android.tv.App;
 import com.fongmi.android.tv.bean.Filter;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
-public class FilterAdapter implements JsonDeserializer<LinkedHashMap<String, List<Filter>>> {
+public class FilterAdapter extends TypeAdapter<LinkedHashMap<String, List<Filter>>> {
+
+    private static final Type TYPE = new TypeToken<LinkedHashMap<String, List<Filter>>>() {}.getType();
+
+    @Override
+    public void write(JsonWriter out, LinkedHashMap<String, List<Filter>> value) throws IOException {
+        App.gson().toJson(value, TYPE, out);
+    }
 
     @Override
-    public LinkedHashMap<String, List<Filter>> deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
+    public LinkedHashMap<String, List<Filter>> read(JsonReader in) throws IOException {
         LinkedHashMap<String, List<Filter>> filterMap = new LinkedHashMap<>();
-        JsonObject filters = json.getAsJsonObject();
-        if (filters == null) return filterMap;
-        for (Map.Entry<String, JsonElement> entry : filters.entrySet()) {
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
+            in.skipValue();
+            return filterMap;
+        }
+        TypeAdapter<Filter> adapter = App.gson().getAdapter(Filter.class);
+        in.beginObject();
+        while (in.hasNext()) {
+            String key = in.nextName();
             List<Filter> items = new ArrayList<>();
-            JsonElement element = filters.get(entry.getKey());
-            if (element.isJsonObject()) items.add(Filter.objectFrom(element).check().trans());
-            else for (JsonElement item : element.getAsJsonArray()) items.add(Filter.objectFrom(item).check().trans());
-            filterMap.put(entry.getKey(), items);
+            if (in.peek() == JsonToken.BEGIN_OBJECT) {
+                add(items, adapter.read(in));
+            } else if (in.peek() == JsonToken.BEGIN_ARRAY) {
+                in.beginArray();
+                while (in.hasNext()) add(items, adapter.read(in));
+                in.endArray();
+            } else {
+                in.skipValue();
+            }
+            filterMap.put(key, items);
         }
+        in.endObject();
         return filterMap;
     }
+
+    private void add(List<Filter> items, Filter filter) {
+        if (filter != null) items.add(filter.check().trans());
+    }
 }
@@ -0,0 +1,145 @@
+package com.fongmi.android.tv.model;
+
+import android.text.TextUtils;
+
+import com.fongmi.android.tv.App;
+import com.fongmi.android.tv.Constant;
+import com.fongmi.android.tv.Setting;
+import com.fongmi.android.tv.api.config.VodConfig;
+import com.fongmi.android.tv.bean.Result;
+import com.fongmi.android.tv.bean.Site;
+import com.fongmi.android.tv.bean.Vod;
+import com.github.catvod.utils.Logger;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 详情预取 - 海报焦点停留一段时间后在后台低优先级获取详情，打开详情页时优先使用
+ */
+public class DetailPrefetcher {
+
+    private static final long TTL = TimeUnit.MINUTES.toMillis(3);
+    private static final int SIZE = 8;
+
+    private final LinkedHashMap<String, Entry> cache;
+    private final ThreadPoolExecutor executor;
+    private final Runnable task;
+    private Future<?> future;
+    private String key;
+    private String id;
+
+    private static class Loader {
+        static volatile DetailPrefetcher INSTANCE = new DetailPrefetcher();
+    }
+
+    public static DetailPrefetcher get() {
+        return Loader.INSTANCE;
+    }
+
+    private DetailPrefetcher() {
+        cache = new LinkedHashMap<>(SIZE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > SIZE;
+            }
+        };
+        executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "DetailPrefetcher");
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        task = this::start;
+    }
+
+    private static String getKey(String key, String id) {
+        return key + "@" + id;
+    }
+
+    public void focus(String key, Vod item, boolean focused) {
+        cancel();
+        if (!focused || !isValid(key, item) || Setting.getPrefetchDwell() <= 0) return;
+        synchronized (this) {
+            if (find(getKey(key, item.getVodId())) != null) return;
+            this.key = key;
+            this.id = item.getVodId();
+        }
+        App.post(task, Setting.getPrefetchDwell());
+    }
+
+    public synchronized void cancel() {
+        App.removeCallbacks(task);
+        if (future != null) future.cancel(true);
+        future = null;
+        key = null;
+        id = null;
+    }
+
+    public Result take(String key, String id) {
+        Future<?> pending = null;
+        synchronized (this) {
+            if (getKey(key, id).equals(getKey(this.key, this.id))) {
+                App.removeCallbacks(task);
+                pending = future;
+            }
+        }
+        try {
+            if (pending != null) pending.get(Constant.TIMEOUT_VOD, TimeUnit.MILLISECONDS);
+        } catch (Exception ignored) {
+        }
+        synchronized (this) {
+            Entry entry = find(getKey(key, id));
+            if (entry != null) cache.remove(getKey(key, id));
+            return entry == null ? null : entry.result;
+        }
+    }
+
+    private boolean isValid(String key, Vod item) {
+        if (TextUtils.isEmpty(key) || item == null || item.isAction() || item.isFolder()) return false;
+        if (TextUtils.isEmpty(item.getVodId()) || item.getVodId().startsWith("msearch:")) return false;
+        Site site = VodConfig.get().getSite(key);
+        return !site.isEmpty() && !site.isIndex();
+    }
+
+    private Entry find(String key) {
+        Entry entry = cache.get(key);
+        if (entry == null || System.currentTimeMillis() - entry.time <= TTL) return entry;
+        cache.remove(key);
+        return null;
+    }
+
+    private synchronized void start() {
+        if (key == null || id == null) return;
+        String key = this.key;
+        String id = this.id;
+        future = executor.submit(() -> load(key, id));
+    }
+
+    private void load(String key, String id) {
+        try {
+            Result result = SiteViewModel.detail(key, id, true);
+            if (Thread.interrupted() || result.getList().isEmpty()) return;
+            synchronized (this) {
+                cache.put(getKey(key, id), new Entry(result));
+            }
+        } catch (Throwable e) {
+            if (!(e instanceof InterruptedException)) Logger.e("Error", e);
+        }
+    }
+
+    private static class Entry {
+
+        private final Result result;
+        private final long time;
+
+        private Entry(Result result) {
+            this.result = result;
+            this.time = System.currentTimeMillis();
+        }
+    }
+}
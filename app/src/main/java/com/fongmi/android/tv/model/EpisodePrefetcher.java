@@ -0,0 +1,137 @@
+package com.fongmi.android.tv.model;
+
+import com.fongmi.android.tv.App;
+import com.fongmi.android.tv.Constant;
+import com.fongmi.android.tv.Setting;
+import com.fongmi.android.tv.api.config.VodConfig;
+import com.fongmi.android.tv.bean.Episode;
+import com.fongmi.android.tv.bean.Result;
+import com.fongmi.android.tv.player.Source;
+import com.fongmi.android.tv.player.exo.Prebuffer;
+import com.github.catvod.utils.Logger;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 选集预解析 - 播放临近结束时在后台解析下一集地址并预缓冲开头数据，地址过期后重新解析
+ */
+public class EpisodePrefetcher {
+
+    private static final long TTL = TimeUnit.MINUTES.toMillis(5);
+
+    private final ThreadPoolExecutor executor;
+    private Future<?> buffer;
+    private Future<?> future;
+    private Result result;
+    private String key;
+    private long time;
+
+    private static class Loader {
+        static volatile EpisodePrefetcher INSTANCE = new EpisodePrefetcher();
+    }
+
+    public static EpisodePrefetcher get() {
+        return Loader.INSTANCE;
+    }
+
+    private EpisodePrefetcher() {
+        executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "EpisodePrefetcher");
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    private static String getKey(String key, String flag, String id) {
+        return key + "@" + flag + "@" + id;
+    }
+
+    public static boolean isTime(long position, long duration, long ending) {
+        long remain = duration - position - Math.max(0, ending);
+        return Setting.getPreloadNext() > 0 && duration > 0 && remain > 0 && remain <= TimeUnit.SECONDS.toMillis(Setting.getPreloadNext());
+    }
+
+    public synchronized void prepare(String key, String flag, Episode episode) {
+        String target = getKey(key, flag, episode.getUrl());
+        if (target.equals(this.key) && !isExpired()) return;
+        cancel();
+        this.key = target;
+        this.time = System.currentTimeMillis();
+        future = executor.submit(() -> load(target, key, flag, episode.getUrl()));
+    }
+
+    public Result take(String key, String flag, String id) {
+        Future<?> pending;
+        synchronized (this) {
+            if (!getKey(key, flag, id).equals(this.key)) {
+                Prebuffer.get().play(null);
+                return null;
+            }
+            pending = future;
+        }
+        try {
+            if (pending != null) pending.get(Constant.TIMEOUT_PLAY, TimeUnit.MILLISECONDS);
+        } catch (Exception ignored) {
+        }
+        synchronized (this) {
+            Result item = isExpired() ? null : result;
+            Prebuffer.get().play(item == null ? null : item.getUrl().v());
+            this.result = null;
+            this.key = null;
+            return item;
+        }
+    }
+
+    public synchronized void cancel() {
+        if (future != null) future.cancel(true);
+        if (buffer != null) buffer.cancel(true);
+        Prebuffer.get().cancel();
+        future = null;
+        buffer = null;
+        result = null;
+        key = null;
+    }
+
+    public void clear() {
+        cancel();
+        App.execute(() -> Prebuffer.get().remove());
+    }
+
+    private boolean isExpired() {
+        return System.currentTimeMillis() - time > TTL;
+    }
+
+    private boolean isDirect(Result result) {
+        String url = result.getUrl().v();
+        if (result.hasMsg() || result.getDrm() != null || !url.startsWith("http")) return false;
+        if (result.getParse() == 1 || result.getJx() == 1 || !result.getPlayUrl().isEmpty()) return false;
+        if (VodConfig.hasParse() && VodConfig.get().getFlags().contains(result.getFlag())) return false;
+        return !Source.get().hasExtractor(url);
+    }
+
+    private void load(String target, String key, String flag, String id) {
+        try {
+            Result result = SiteViewModel.player(key, flag, id, true);
+            synchronized (this) {
+                if (Thread.interrupted() || !target.equals(this.key)) return;
+                this.result = result;
+                if (isDirect(result)) buffer = executor.submit(() -> buffer(result));
+            }
+        } catch (Throwable e) {
+            if (!(e instanceof InterruptedException)) Logger.e("Error", e);
+        }
+    }
+
+    private void buffer(Result result) {
+        try {
+            Prebuffer.get().cache(result.getUrl().v(), result.getFormat(), result.getHeaders());
+        } catch (Throwable e) {
+            if (!(e instanceof InterruptedIOException)) Logger.e("Error", e);
+        }
+    }
+}
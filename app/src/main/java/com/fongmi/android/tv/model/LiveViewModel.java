@@ -16,6 +16,7 @@ import com.fongmi.android.tv.bean.Group;
 import com.fongmi.android.tv.bean.Live;
 import com.fongmi.android.tv.exception.ExtractException;
 import com.fongmi.android.tv.player.Source;
+import com.fongmi.android.tv.utils.TaskScope;
 import com.github.catvod.net.OkHttp;
 
 import java.text.SimpleDateFormat;
@@ -26,9 +27,6 @@ import java.util.List;
 import java.util.Locale;
 import java.util.TimeZone;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 
 public class LiveViewModel extends ViewModel {
 
@@ -45,12 +43,10 @@ public class LiveViewModel extends ViewModel {
     public MutableLiveData<Live> live;
     public MutableLiveData<Epg> epg;
 
-    private ExecutorService executor1;
-    private ExecutorService executor2;
-    private ExecutorService executor3;
-    private ExecutorService executor4;
+    private final TaskScope scope;
 
     public LiveViewModel() {
+        this.scope = new TaskScope();
         this.live = new MutableLiveData<>();
         this.epg = new MutableLiveData<>();
         this.url = new MutableLiveData<>();
@@ -123,55 +119,42 @@ public class LiveViewModel extends ViewModel {
     }
 
     private void execute(int type, Callable<?> callable) {
-        switch (type) {
-            case LIVE:
-                if (executor1 != null) executor1.shutdownNow();
-                executor1 = Executors.newFixedThreadPool(2);
-                executor1.execute(runnable(type, callable, executor1));
-                break;
-            case EPG:
-                if (executor2 != null) executor2.shutdownNow();
-                executor2 = Executors.newFixedThreadPool(2);
-                executor2.execute(runnable(type, callable, executor2));
-                break;
-            case URL:
-                if (executor3 != null) executor3.shutdownNow();
-                executor3 = Executors.newFixedThreadPool(2);
-                executor3.execute(runnable(type, callable, executor3));
-                break;
-            case XML:
-                if (executor4 != null) executor4.shutdownNow();
-                executor4 = Executors.newFixedThreadPool(2);
-                executor4.execute(runnable(type, callable, executor4));
-                break;
-        }
-    }
+        scope.launch(type, getTimeout(type), callable, new TaskScope.Callback<Object>() {
+            @Override
+            public void success(Object result) {
+                if (type == EPG) epg.postValue((Epg) result);
+                if (type == LIVE) live.postValue((Live) result);
+                if (type == XML) xml.postValue((Boolean) result);
+                if (type == URL) url.postValue((Channel) result);
+            }
 
-    private Runnable runnable(int type, Callable<?> callable, ExecutorService executor) {
-        return () -> {
-            try {
-                if (Thread.interrupted()) return;
-                if (type == EPG) epg.postValue((Epg) executor.submit(callable).get(Constant.TIMEOUT_EPG, TimeUnit.MILLISECONDS));
-                if (type == LIVE) live.postValue((Live) executor.submit(callable).get(Constant.TIMEOUT_LIVE, TimeUnit.MILLISECONDS));
-                if (type == XML) xml.postValue((Boolean) executor.submit(callable).get(Constant.TIMEOUT_XML, TimeUnit.MILLISECONDS));
-                if (type == URL) url.postValue((Channel) executor.submit(callable).get(Constant.TIMEOUT_PARSE_LIVE, TimeUnit.MILLISECONDS));
-            } catch (Throwable e) {
-                if (e instanceof InterruptedException || Thread.interrupted()) return;
-                if (e.getCause() instanceof ExtractException) url.postValue(Channel.error(e.getCause().getMessage()));
+            @Override
+            public void error(Throwable e) {
+                if (e instanceof ExtractException) url.postValue(Channel.error(e.getMessage()));
                 else if (type == URL) url.postValue(new Channel());
                 if (type == LIVE) live.postValue(new Live());
                 if (type == EPG) epg.postValue(new Epg());
                 if (type == XML) xml.postValue(false);
                 Logger.e("Error", e);
             }
-        };
+        });
+    }
+
+    private long getTimeout(int type) {
+        switch (type) {
+            case EPG:
+                return Constant.TIMEOUT_EPG;
+            case XML:
+                return Constant.TIMEOUT_XML;
+            case URL:
+                return Constant.TIMEOUT_PARSE_LIVE;
+            default:
+                return Constant.TIMEOUT_LIVE;
+        }
     }
 
     @Override
     protected void onCleared() {
-        if (executor1 != null) executor1.shutdownNow();
-        if (executor2 != null) executor2.shutdownNow();
-        if (executor3 != null) executor3.shutdownNow();
-        if (executor4 != null) executor4.shutdownNow();
+        scope.close();
     }
 }
@@ -0,0 +1,83 @@
+package com.fongmi.android.tv.model;
+
+import com.fongmi.android.tv.Constant;
+import com.fongmi.android.tv.bean.Result;
+import com.fongmi.android.tv.utils.TaskScope;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分页预取缓存 - 提前加载下一页并保存在当前页面，遇到空页后停止预取
+ */
+class PageCache {
+
+    private static final int SIZE = 3;
+
+    private final LinkedHashMap<String, Future<Result>> pages;
+    private final Set<String> ends;
+
+    PageCache() {
+        this.ends = new HashSet<>();
+        this.pages = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Future<Result>> eldest) {
+                if (size() <= SIZE) return false;
+                eldest.getValue().cancel(true);
+                return true;
+            }
+        };
+    }
+
+    static int threshold(long latency) {
+        return (int) Math.max(1, Math.min(4, 1 + latency / 1000));
+    }
+
+    static String group(String key, String id, Map<String, String> extend) {
+        return key + "@" + id + (extend == null ? "" : "@" + new TreeMap<>(extend));
+    }
+
+    private static String getKey(String group, String page) {
+        return group + "#" + page;
+    }
+
+    synchronized void prefetch(String group, String page, Callable<Result> callable) {
+        String key = getKey(group, page);
+        if (ends.contains(group) || pages.containsKey(key)) return;
+        pages.put(key, TaskScope.submit(() -> {
+            Result result = callable.call();
+            if (result.getList().isEmpty()) end(group);
+            return result;
+        }));
+    }
+
+    Result take(String group, String page) {
+        Future<Result> future;
+        synchronized (this) {
+            if ("1".equals(page)) clear();
+            future = pages.remove(getKey(group, page));
+        }
+        if (future == null) return null;
+        try {
+            return future.get(Constant.TIMEOUT_VOD, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    synchronized void clear() {
+        for (Future<Result> future : pages.values()) future.cancel(true);
+        pages.clear();
+        ends.clear();
+    }
+
+    private synchronized void end(String group) {
+        ends.add(group);
+    }
+}
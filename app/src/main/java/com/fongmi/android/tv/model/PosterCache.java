@@ -0,0 +1,127 @@
+package com.fongmi.android.tv.model;
+
+import android.text.TextUtils;
+import android.util.LruCache;
+
+import androidx.collection.ArrayMap;
+
+import com.fongmi.android.tv.App;
+import com.fongmi.android.tv.bean.Result;
+import com.fongmi.android.tv.bean.Site;
+import com.fongmi.android.tv.bean.Vod;
+import com.fongmi.android.tv.event.RefreshEvent;
+import com.github.catvod.net.OkHttp;
+import com.github.catvod.utils.Logger;
+import com.google.common.collect.Lists;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Response;
+
+/**
+ * 海报补全 - 列表先行展示，缺失的海报按站点合并 ids 并发获取，结果按站点缓存
+ * 返回不全时先按返回条数补查剩余 ids，补查有结果才记录为站点单次上限，完整返回后解除
+ */
+public class PosterCache {
+
+    private static final int SIZE = 300;
+
+    private final Map<String, LruCache<String, String>> caches;
+    private final Map<String, Integer> limits;
+    private final ThreadPoolExecutor executor;
+    private final Runnable refresh;
+
+    private static class Loader {
+        static volatile PosterCache INSTANCE = new PosterCache();
+    }
+
+    public static PosterCache get() {
+        return Loader.INSTANCE;
+    }
+
+    private PosterCache() {
+        caches = new ConcurrentHashMap<>();
+        limits = new ConcurrentHashMap<>();
+        executor = new ThreadPoolExecutor(4, 4, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        executor.allowCoreThreadTimeOut(true);
+        refresh = RefreshEvent::image;
+    }
+
+    public void fill(Site site, List<Vod> items) {
+        LruCache<String, String> cache = getCache(site);
+        Map<String, List<Vod>> missing = new LinkedHashMap<>();
+        for (Vod item : items) {
+            if (!item.getVodPic().isEmpty() || TextUtils.isEmpty(item.getVodId())) continue;
+            String pic = cache.get(item.getVodId());
+            if (pic != null) item.setVodPic(pic);
+            else group(missing, item);
+        }
+        if (missing.isEmpty()) return;
+        Integer limit = limits.get(site.getKey());
+        List<String> ids = new ArrayList<>(missing.keySet());
+        for (List<String> batch : Lists.partition(ids, limit == null ? ids.size() : limit)) submit(site, batch, missing, 0);
+    }
+
+    public void clear() {
+        executor.getQueue().clear();
+        caches.clear();
+        limits.clear();
+    }
+
+    private LruCache<String, String> getCache(Site site) {
+        LruCache<String, String> cache = caches.get(site.getKey());
+        if (cache == null) cache = caches.computeIfAbsent(site.getKey(), key -> new LruCache<>(SIZE));
+        return cache;
+    }
+
+    private void group(Map<String, List<Vod>> missing, Vod item) {
+        List<Vod> items = missing.get(item.getVodId());
+        if (items == null) missing.put(item.getVodId(), items = new ArrayList<>());
+        items.add(item);
+    }
+
+    private void submit(Site site, List<String> ids, Map<String, List<Vod>> missing, int limit) {
+        executor.execute(() -> {
+            try {
+                load(site, new ArrayList<>(ids), missing, limit);
+            } catch (Throwable e) {
+                Logger.e("Error", e);
+            }
+        });
+    }
+
+    private void load(Site site, List<String> ids, Map<String, List<Vod>> missing, int limit) throws Exception {
+        List<Vod> result = fetch(site, ids);
+        LruCache<String, String> cache = getCache(site);
+        int count = 0;
+        for (Vod vod : result) {
+            if (!ids.remove(vod.getVodId())) continue;
+            count++;
+            if (vod.getVodPic().isEmpty()) continue;
+            cache.put(vod.getVodId(), vod.getVodPic());
+            List<Vod> items = missing.get(vod.getVodId());
+            if (items != null) for (Vod item : items) item.setVodPic(vod.getVodPic());
+        }
+        if (count > 0) App.post(refresh, 100);
+        if (count > 0 && limit > 0) limits.merge(site.getKey(), limit, Math::min);
+        if (count > 0 && ids.isEmpty() && limit == 0) limits.remove(site.getKey());
+        if (count == 0 || ids.isEmpty()) return;
+        for (List<String> batch : Lists.partition(ids, count)) submit(site, batch, missing, count);
+    }
+
+    private List<Vod> fetch(Site site, List<String> ids) throws Exception {
+        ArrayMap<String, String> params = new ArrayMap<>();
+        params.put("ac", site.getType() == 0 ? "videolist" : "detail");
+        params.put("ids", TextUtils.join(",", ids));
+        try (Response response = OkHttp.newCall(site.getApi(), site.getHeaders(), params).execute()) {
+            return Result.fromType(site.getType(), response.body().charStream()).getList();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.fongmi.android.tv.model;
+
+import android.util.LruCache;
+
+import com.fongmi.android.tv.App;
+import com.fongmi.android.tv.api.config.Snapshot;
+import com.fongmi.android.tv.bean.Result;
+import com.fongmi.android.tv.bean.Site;
+import com.fongmi.android.tv.bean.Vod;
+import com.github.catvod.utils.Logger;
+import com.github.catvod.utils.Path;
+import com.github.catvod.utils.Trans;
+import com.github.catvod.utils.Util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 搜索缓存 - 按站点、关键字与快速搜索标记缓存结果，内存与磁盘两级，过期条目先返回再后台刷新
+ */
+public class SearchCache {
+
+    private static final int MAGIC = 0x53524348;
+    private static final long TTL = TimeUnit.MINUTES.toSeconds(30);
+    private static final long MAX_AGE = TimeUnit.DAYS.toMillis(1);
+    private static final int MEMORY = 2 * 1024 * 1024;
+    private static final int ENTRY = 256 * 1024;
+    private static final int FILES = 256;
+
+    private final LruCache<String, Entry> memory;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> refreshing;
+
+    private static class Loader {
+        static volatile SearchCache INSTANCE = new SearchCache();
+    }
+
+    public static SearchCache get() {
+        return Loader.INSTANCE;
+    }
+
+    private SearchCache() {
+        refreshing = ConcurrentHashMap.newKeySet();
+        memory = new LruCache<>(MEMORY) {
+            @Override
+            protected int sizeOf(String key, Entry entry) {
+                return entry.json.length();
+            }
+        };
+        executor = new ThreadPoolExecutor(2, 2, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "SearchCache");
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    private static File getDir() {
+        return Path.cache("search");
+    }
+
+    private static String getKey(Site site, String keyword, boolean quick) {
+        String text = Trans.t2s(keyword).trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return Util.md5(site.getKey() + "@" + site.getApi() + "@" + site.getExt() + "@" + text + "@" + quick);
+    }
+
+    private static long getTtl(Site site) {
+        return TimeUnit.SECONDS.toMillis(site.getSearchTtl() < 0 ? TTL : site.getSearchTtl());
+    }
+
+    public Result find(Site site, String keyword, boolean quick, Callable<Result> loader) {
+        if (getTtl(site) == 0) return null;
+        String key = getKey(site, keyword, quick);
+        Entry entry = read(key);
+        if (entry == null || entry.isEmpty() || entry.age() > MAX_AGE) return null;
+        if (entry.age() > getTtl(site)) refresh(key, loader);
+        return entry.result();
+    }
+
+    public Result put(Site site, String keyword, boolean quick, Result result) {
+        if (getTtl(site) == 0) return result;
+        save(getKey(site, keyword, quick), result);
+        return result;
+    }
+
+    private void refresh(String key, Callable<Result> loader) {
+        if (!refreshing.add(key)) return;
+        executor.execute(() -> {
+            try {
+                save(key, loader.call());
+            } catch (Throwable e) {
+                Logger.e("Error", e);
+            } finally {
+                refreshing.remove(key);
+            }
+        });
+    }
+
+    private Entry read(String key) {
+        Entry entry = memory.get(key);
+        if (entry != null) return entry;
+        File file = new File(getDir(), key);
+        if (!file.exists()) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))))) {
+            if (in.readInt() != MAGIC) return null;
+            entry = new Entry(in.readLong(), Snapshot.readString(in));
+            memory.put(key, entry);
+            return entry;
+        } catch (Exception e) {
+            file.delete();
+            return null;
+        }
+    }
+
+    /**
+     * 空结果不缓存，超时或异常返回的空列表不会遮蔽站点，也不会覆盖已有的结果
+     */
+    private void save(String key, Result result) {
+        if (result == null || result.getList().isEmpty()) return;
+        Entry entry = new Entry(System.currentTimeMillis(), App.gson().toJson(result.getList()));
+        if (entry.json.length() > ENTRY) return;
+        memory.put(key, entry);
+        App.execute(() -> write(key, entry));
+    }
+
+    private synchronized void write(String key, Entry entry) {
+        File dir = getDir();
+        if (!dir.exists() && !dir.mkdirs()) return;
+        File temp = new File(dir, key + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(temp))))) {
+            out.writeInt(MAGIC);
+            out.writeLong(entry.time);
+            Snapshot.writeString(out, entry.json);
+        } catch (Exception e) {
+            temp.delete();
+            return;
+        }
+        if (!temp.renameTo(new File(dir, key))) temp.delete();
+        trim(dir);
+    }
+
+    private void trim(File dir) {
+        File[] files = dir.listFiles();
+        if (files == null || files.length <= FILES) return;
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (int i = 0; i < files.length - FILES; i++) files[i].delete();
+    }
+
+    private static class Entry {
+
+        private final long time;
+        private final String json;
+
+        private Entry(long time, String json) {
+            this.time = time;
+            this.json = json;
+        }
+
+        private boolean isEmpty() {
+            return json.equals("[]");
+        }
+
+        private long age() {
+            return System.currentTimeMillis() - time;
+        }
+
+        private Result result() {
+            Result result = new Result();
+            result.setList(Vod.arrayFrom(json));
+            return result;
+        }
+    }
+}
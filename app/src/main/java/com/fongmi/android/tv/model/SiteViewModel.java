@@ -1,8 +1,6 @@
 package com.fongmi.android.tv.model;
 import com.github.catvod.utils.Logger;
 
-import android.text.TextUtils;
-
 import androidx.collection.ArrayMap;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
@@ -10,7 +8,9 @@ import androidx.lifecycle.ViewModel;
 import com.fongmi.android.tv.App;
 import com.fongmi.android.tv.Constant;
 import com.fongmi.android.tv.R;
+import com.fongmi.android.tv.api.SpiderStats;
 import com.fongmi.android.tv.api.config.VodConfig;
+import com.fongmi.android.tv.bean.Catalog;
 import com.fongmi.android.tv.bean.Episode;
 import com.fongmi.android.tv.bean.Flag;
 import com.fongmi.android.tv.bean.Result;
@@ -21,6 +21,8 @@ import com.fongmi.android.tv.exception.ExtractException;
 import com.fongmi.android.tv.player.Source;
 import com.fongmi.android.tv.utils.ResUtil;
 import com.fongmi.android.tv.utils.Sniffer;
+import com.fongmi.android.tv.utils.TaskScope;
+import com.fongmi.android.tv.utils.TitleCluster;
 import com.github.catvod.crawler.Spider;
 import com.github.catvod.crawler.SpiderDebug;
 import com.github.catvod.net.OkHttp;
@@ -28,13 +30,9 @@ import com.github.catvod.utils.Trans;
 import com.github.catvod.utils.Util;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 
 import okhttp3.Call;
 import okhttp3.Response;
@@ -46,7 +44,8 @@ public class SiteViewModel extends ViewModel {
     public MutableLiveData<Result> player;
     public MutableLiveData<Result> search;
     public MutableLiveData<Result> action;
-    private ExecutorService executor;
+    private final TaskScope scope = new TaskScope();
+    private final PageCache pages = new PageCache();
 
     public SiteViewModel() {
         this.episode = new MutableLiveData<>();
@@ -65,228 +64,278 @@ public class SiteViewModel extends ViewModel {
             Site site = VodConfig.get().getHome();
             if (site.getType() == 3) {
                 Spider spider = site.recent().spider();
-                String homeContent = spider.homeContent(true);
+                String homeContent = SpiderStats.get().track(site.getKey(), SpiderStats.HOME, () -> spider.homeContent(true));
                 SpiderDebug.log(homeContent);
                 Result result = Result.fromJson(homeContent);
                 if (!result.getList().isEmpty()) return result;
-                String homeVideoContent = spider.homeVideoContent();
+                String homeVideoContent = SpiderStats.get().track(site.getKey(), SpiderStats.HOME, spider::homeVideoContent);
                 SpiderDebug.log(homeVideoContent);
                 result.setList(Result.fromJson(homeVideoContent).getList());
                 return result;
             } else if (site.getType() == 4) {
                 ArrayMap<String, String> params = new ArrayMap<>();
                 params.put("filter", "true");
-                String homeContent = call(site.fetchExt(), params);
+                String homeContent = SpiderStats.get().track(site.getKey(), SpiderStats.HOME, () -> call(site.fetchExt(), params));
                 SpiderDebug.log(homeContent);
                 return Result.fromJson(homeContent);
             } else {
-                Response response = OkHttp.newCall(site.getApi(), site.getHeaders()).execute();
-                String homeContent = response.body().string();
-                SpiderDebug.log(homeContent);
-                response.close();
-                return fetchPic(site, Result.fromType(site.getType(), homeContent));
+                return fetchPic(site, SpiderStats.get().track(site.getKey(), SpiderStats.HOME, () -> fetch(site)));
             }
         });
     }
 
     public void categoryContent(String key, String tid, String page, boolean filter, HashMap<String, String> extend) {
         execute(result, () -> {
-            Site site = VodConfig.get().getSite(key);
-            if (site.getType() == 3) {
-                Spider spider = site.recent().spider();
-                String categoryContent = spider.categoryContent(tid, page, filter, extend);
-                SpiderDebug.log(categoryContent);
-                return Result.fromJson(categoryContent);
-            } else {
-                ArrayMap<String, String> params = new ArrayMap<>();
-                if (site.getType() == 1 && !extend.isEmpty()) params.put("f", App.gson().toJson(extend));
-                if (site.getType() == 4) params.put("ext", Util.base64(App.gson().toJson(extend), Util.URL_SAFE));
-                params.put("ac", site.getType() == 0 ? "videolist" : "detail");
-                params.put("t", tid);
-                params.put("pg", page);
-                String categoryContent = call(site, params);
-                SpiderDebug.log(categoryContent);
-                return Result.fromType(site.getType(), categoryContent);
-            }
+            Result cache = pages.take(PageCache.group(key, tid, extend), page);
+            return cache != null ? cache : category(key, tid, page, filter, extend);
         });
     }
 
+    public void prefetchCategory(String key, String tid, String page, boolean filter, HashMap<String, String> extend) {
+        HashMap<String, String> params = new HashMap<>(extend);
+        pages.prefetch(PageCache.group(key, tid, params), page, () -> category(key, tid, page, filter, params));
+    }
+
+    private static Result category(String key, String tid, String page, boolean filter, HashMap<String, String> extend) throws Exception {
+        Site site = VodConfig.get().getSite(key);
+        if (site.getType() == 3) {
+            Spider spider = site.recent().spider();
+            String categoryContent = SpiderStats.get().track(key, SpiderStats.CATEGORY, () -> spider.categoryContent(tid, page, filter, extend));
+            SpiderDebug.log(categoryContent);
+            return Result.fromJson(categoryContent);
+        } else {
+            ArrayMap<String, String> params = new ArrayMap<>();
+            if (site.getType() == 1 && !extend.isEmpty()) params.put("f", App.gson().toJson(extend));
+            if (site.getType() == 4) params.put("ext", Util.base64(App.gson().toJson(extend), Util.URL_SAFE));
+            params.put("ac", site.getType() == 0 ? "videolist" : "detail");
+            params.put("t", tid);
+            params.put("pg", page);
+            return SpiderStats.get().track(key, SpiderStats.CATEGORY, () -> fetch(site, params));
+        }
+    }
+
     public void detailContent(String key, String id) {
         execute(result, () -> {
-            Site site = VodConfig.get().getSite(key);
-            if (site.getType() == 3) {
-                Spider spider = site.recent().spider();
-                String detailContent = spider.detailContent(Arrays.asList(id));
-                SpiderDebug.log(detailContent);
-                Result result = Result.fromJson(detailContent);
-                if (!result.getList().isEmpty()) result.getList().get(0).setVodFlags();
-                if (!result.getList().isEmpty()) Source.get().parse(result.getList().get(0).getVodFlags());
-                return result;
-            } else if (site.isEmpty() && "push_agent".equals(key)) {
-                Vod vod = new Vod();
-                vod.setVodId(id);
-                vod.setVodName(id);
-                vod.setVodPic(ResUtil.getString(R.string.push_image));
-                vod.setVodFlags(Flag.create(ResUtil.getString(R.string.push), id));
-                Source.get().parse(vod.getVodFlags());
-                return Result.vod(vod);
-            } else {
-                ArrayMap<String, String> params = new ArrayMap<>();
-                params.put("ac", site.getType() == 0 ? "videolist" : "detail");
-                params.put("ids", id);
-                String detailContent = call(site, params);
-                SpiderDebug.log(detailContent);
-                Result result = Result.fromType(site.getType(), detailContent);
-                if (!result.getList().isEmpty()) result.getList().get(0).setVodFlags();
-                if (!result.getList().isEmpty()) Source.get().parse(result.getList().get(0).getVodFlags());
-                return result;
-            }
+            Result cache = DetailPrefetcher.get().take(key, id);
+            if (cache == null) return Catalog.seen(key, detail(key, id, false));
+            Source.get().parse(cache.getList().get(0).getVodFlags());
+            return Catalog.seen(key, cache);
         });
     }
 
+    public static Result detail(String key, String id, boolean prefetch) throws Exception {
+        Site site = VodConfig.get().getSite(key);
+        if (site.getType() == 3) {
+            Spider spider = prefetch ? site.spider() : site.recent().spider();
+            String detailContent = SpiderStats.get().track(key, SpiderStats.DETAIL, () -> spider.detailContent(Arrays.asList(id)));
+            SpiderDebug.log(detailContent);
+            Result result = Result.fromJson(detailContent);
+            if (!result.getList().isEmpty()) result.getList().get(0).setVodFlags();
+            if (!result.getList().isEmpty() && !prefetch) Source.get().parse(result.getList().get(0).getVodFlags());
+            return result;
+        } else if (site.isEmpty() && "push_agent".equals(key)) {
+            Vod vod = new Vod();
+            vod.setVodId(id);
+            vod.setVodName(id);
+            vod.setVodPic(ResUtil.getString(R.string.push_image));
+            vod.setVodFlags(Flag.create(ResUtil.getString(R.string.push), id));
+            Source.get().parse(vod.getVodFlags());
+            return Result.vod(vod);
+        } else {
+            ArrayMap<String, String> params = new ArrayMap<>();
+            params.put("ac", site.getType() == 0 ? "videolist" : "detail");
+            params.put("ids", id);
+            Result result = SpiderStats.get().track(key, SpiderStats.DETAIL, () -> fetch(site, params));
+            if (!result.getList().isEmpty()) result.getList().get(0).setVodFlags();
+            if (!result.getList().isEmpty() && !prefetch) Source.get().parse(result.getList().get(0).getVodFlags());
+            return result;
+        }
+    }
+
     public void playerContent(String key, String flag, String id) {
         execute(player, () -> {
             Source.get().stop();
-            Site site = VodConfig.get().getSite(key);
-            if (site.getType() == 3) {
-                Spider spider = site.recent().spider();
-                String playerContent = spider.playerContent(flag, id, VodConfig.get().getFlags());
-                SpiderDebug.log(playerContent);
-                Result result = Result.fromJson(playerContent);
-                if (result.getFlag().isEmpty()) result.setFlag(flag);
-                result.setUrl(Source.get().fetch(result));
-                result.setHeader(site.getHeader());
-                result.setKey(key);
-                return result;
-            } else if (site.getType() == 4) {
-                ArrayMap<String, String> params = new ArrayMap<>();
-                params.put("play", id);
-                params.put("flag", flag);
-                String playerContent = call(site, params);
-                SpiderDebug.log(playerContent);
-                Result result = Result.fromJson(playerContent);
-                if (result.getFlag().isEmpty()) result.setFlag(flag);
-                result.setUrl(Source.get().fetch(result));
-                result.setHeader(site.getHeader());
-                return result;
-            } else if (site.isEmpty() && "push_agent".equals(key)) {
-                Result result = new Result();
-                result.setParse(0);
-                result.setFlag(flag);
-                result.setUrl(Url.create().add(id));
-                result.setUrl(Source.get().fetch(result));
-                return result;
-            } else {
-                Url url = Url.create().add(id);
-                Result result = new Result();
-                result.setUrl(url);
-                result.setFlag(flag);
-                result.setHeader(site.getHeader());
-                result.setPlayUrl(site.getPlayUrl());
-                result.setParse(Sniffer.isVideoFormat(url.v()) && result.getPlayUrl().isEmpty() ? 0 : 1);
-                result.setUrl(Source.get().fetch(result));
-                SpiderDebug.log(result.toString());
-                return result;
-            }
+            Result cache = EpisodePrefetcher.get().take(key, flag, id);
+            if (cache == null) return player(key, flag, id, false);
+            cache.setUrl(Source.get().fetch(cache));
+            return cache;
         });
     }
 
+    public static Result player(String key, String flag, String id, boolean prefetch) throws Exception {
+        Site site = VodConfig.get().getSite(key);
+        if (site.getType() == 3) {
+            Spider spider = prefetch ? site.spider() : site.recent().spider();
+            String playerContent = SpiderStats.get().track(key, SpiderStats.PLAYER, () -> spider.playerContent(flag, id, VodConfig.get().getFlags()));
+            SpiderDebug.log(playerContent);
+            Result result = Result.fromJson(playerContent);
+            if (result.getFlag().isEmpty()) result.setFlag(flag);
+            if (!prefetch) result.setUrl(Source.get().fetch(result));
+            result.setHeader(site.getHeader());
+            result.setKey(key);
+            return result;
+        } else if (site.getType() == 4) {
+            ArrayMap<String, String> params = new ArrayMap<>();
+            params.put("play", id);
+            params.put("flag", flag);
+            String playerContent = SpiderStats.get().track(key, SpiderStats.PLAYER, () -> call(site, params));
+            SpiderDebug.log(playerContent);
+            Result result = Result.fromJson(playerContent);
+            if (result.getFlag().isEmpty()) result.setFlag(flag);
+            if (!prefetch) result.setUrl(Source.get().fetch(result));
+            result.setHeader(site.getHeader());
+            return result;
+        } else if (site.isEmpty() && "push_agent".equals(key)) {
+            Result result = new Result();
+            result.setParse(0);
+            result.setFlag(flag);
+            result.setUrl(Url.create().add(id));
+            if (!prefetch) result.setUrl(Source.get().fetch(result));
+            return result;
+        } else {
+            Url url = Url.create().add(id);
+            Result result = new Result();
+            result.setUrl(url);
+            result.setFlag(flag);
+            result.setHeader(site.getHeader());
+            result.setPlayUrl(site.getPlayUrl());
+            result.setParse(Sniffer.isVideoFormat(url.v()) && result.getPlayUrl().isEmpty() ? 0 : 1);
+            if (!prefetch) result.setUrl(Source.get().fetch(result));
+            SpiderDebug.log(result.toString());
+            return result;
+        }
+    }
+
     public void action(String key, String action) {
         execute(this.action, () -> {
             Site site = VodConfig.get().getSite(key);
-            if (site.getType() == 3) return Result.fromJson(site.recent().spider().action(action));
-            if (site.getType() == 4) return Result.fromJson(OkHttp.string(action));
+            if (site.getType() == 3) return Result.fromJson(SpiderStats.get().track(key, SpiderStats.ACTION, () -> site.recent().spider().action(action)));
+            if (site.getType() == 4) return Result.fromJson(SpiderStats.get().track(key, SpiderStats.ACTION, () -> OkHttp.string(action)));
             return Result.empty();
         });
     }
 
     public void searchContent(Site site, String keyword, boolean quick) throws Throwable {
+        if (quick && !site.isQuickSearch()) return;
+        Result cache = SearchCache.get().find(site, keyword, quick, () -> search(site, keyword, quick));
+        if (cache != null) post(site, fetchPic(site, cache));
+        else post(site, SearchCache.get().put(site, keyword, quick, search(site, keyword, quick)));
+    }
+
+    private static Result search(Site site, String keyword, boolean quick) throws Exception {
         if (site.getType() == 3) {
-            if (quick && !site.isQuickSearch()) return;
-            String searchContent = site.spider().searchContent(Trans.t2s(keyword), quick);
+            String searchContent = SpiderStats.get().track(site.getKey(), SpiderStats.SEARCH, () -> site.spider().searchContent(Trans.t2s(keyword), quick));
             SpiderDebug.log(site.getName() + "," + searchContent);
-            post(site, Result.fromJson(searchContent));
+            return Result.fromJson(searchContent);
         } else {
-            if (quick && !site.isQuickSearch()) return;
             ArrayMap<String, String> params = new ArrayMap<>();
             params.put("wd", Trans.t2s(keyword));
             params.put("quick", String.valueOf(quick));
-            String searchContent = call(site, params);
-            SpiderDebug.log(site.getName() + "," + searchContent);
-            post(site, fetchPic(site, Result.fromType(site.getType(), searchContent)));
+            return fetchPic(site, SpiderStats.get().track(site.getKey(), SpiderStats.SEARCH, () -> fetch(site, params)));
         }
     }
 
     public void searchContent(Site site, String keyword, String page) {
         execute(result, () -> {
-            if (site.getType() == 3) {
-                String searchContent = site.spider().searchContent(Trans.t2s(keyword), false, page);
-                SpiderDebug.log(site.getName() + "," + searchContent);
-                Result result = Result.fromJson(searchContent);
-                for (Vod vod : result.getList()) vod.setSite(site);
-                return result;
-            } else {
-                ArrayMap<String, String> params = new ArrayMap<>();
-                params.put("wd", Trans.t2s(keyword));
-                params.put("pg", page);
-                String searchContent = call(site, params);
-                SpiderDebug.log(site.getName() + "," + searchContent);
-                Result result = fetchPic(site, Result.fromType(site.getType(), searchContent));
-                for (Vod vod : result.getList()) vod.setSite(site);
-                return result;
-            }
+            Result cache = pages.take(PageCache.group(site.getKey(), keyword, null), page);
+            return cache != null ? cache : search(site, keyword, page);
         });
     }
 
-    private String call(Site site, ArrayMap<String, String> params) throws IOException {
-        if (!site.getExt().isEmpty()) params.put("extend", site.getExt());
-        Call get = OkHttp.newCall(site.getApi(), site.getHeaders(), params);
-        Call post = OkHttp.newCall(site.getApi(), site.getHeaders(), OkHttp.toBody(params));
-        Response response = (site.getExt().length() <= 1000 ? get : post).execute();
-        String result = response.body().string();
-        response.close();
+    public void prefetchSearch(Site site, String keyword, String page) {
+        pages.prefetch(PageCache.group(site.getKey(), keyword, null), page, () -> search(site, keyword, page));
+    }
+
+    private static Result search(Site site, String keyword, String page) throws Exception {
+        if (site.getType() == 3) {
+            String searchContent = SpiderStats.get().track(site.getKey(), SpiderStats.SEARCH, () -> site.spider().searchContent(Trans.t2s(keyword), false, page));
+            SpiderDebug.log(site.getName() + "," + searchContent);
+            Result result = Result.fromJson(searchContent);
+            for (Vod vod : result.getList()) vod.setSite(site);
+            return result;
+        } else {
+            ArrayMap<String, String> params = new ArrayMap<>();
+            params.put("wd", Trans.t2s(keyword));
+            params.put("pg", page);
+            Result result = fetchPic(site, SpiderStats.get().track(site.getKey(), SpiderStats.SEARCH, () -> fetch(site, params)));
+            for (Vod vod : result.getList()) vod.setSite(site);
+            return result;
+        }
+    }
+
+    public int getThreshold(String key, String method) {
+        return PageCache.threshold(SpiderStats.get().getLatency(key, method));
+    }
+
+    private static Result fetch(Site site) throws IOException {
+        try (Response response = OkHttp.newCall(site.getApi(), site.getHeaders()).execute()) {
+            return log(site, Result.fromType(site.getType(), response.body().charStream()));
+        }
+    }
+
+    private static String call(Site site, ArrayMap<String, String> params) throws IOException {
+        try (Response response = newCall(site, params).execute()) {
+            return response.body().string();
+        }
+    }
+
+    private static Result fetch(Site site, ArrayMap<String, String> params) throws IOException {
+        try (Response response = newCall(site, params).execute()) {
+            return log(site, Result.fromType(site.getType(), response.body().charStream()));
+        }
+    }
+
+    private static Result log(Site site, Result result) {
+        SpiderDebug.log(site.getName() + "," + result);
         return result;
     }
 
-    private Result fetchPic(Site site, Result result) throws Exception {
+    private static Call newCall(Site site, ArrayMap<String, String> params) {
+        if (!site.getExt().isEmpty()) params.put("extend", site.getExt());
+        if (site.getExt().length() <= 1000) return OkHttp.newCall(site.getApi(), site.getHeaders(), params);
+        return OkHttp.newCall(site.getApi(), site.getHeaders(), OkHttp.toBody(params));
+    }
+
+    private static Result fetchPic(Site site, Result result) {
         if (site.getType() > 2 || result.getList().isEmpty() || !result.getList().get(0).getVodPic().isEmpty()) return result;
-        ArrayList<String> ids = new ArrayList<>();
-        if (site.getCategories().isEmpty()) for (Vod item : result.getList()) ids.add(item.getVodId());
-        else for (Vod item : result.getList()) if (site.getCategories().contains(item.getTypeName())) ids.add(item.getVodId());
-        if (ids.isEmpty()) return result.clear();
-        ArrayMap<String, String> params = new ArrayMap<>();
-        params.put("ac", site.getType() == 0 ? "videolist" : "detail");
-        params.put("ids", TextUtils.join(",", ids));
-        Response response = OkHttp.newCall(site.getApi(), site.getHeaders(), params).execute();
-        result.setList(Result.fromType(site.getType(), response.body().string()).getList());
-        response.close();
+        if (!site.getCategories().isEmpty()) result.getList().removeIf(item -> !site.getCategories().contains(item.getTypeName()));
+        if (result.getList().isEmpty()) return result.clear();
+        PosterCache.get().fill(site, result.getList());
         return result;
     }
 
     private void post(Site site, Result result) {
         if (result.getList().isEmpty()) return;
         for (Vod vod : result.getList()) vod.setSite(site);
+        TitleCluster.prepare(result.getList());
         this.search.postValue(result);
     }
 
     private void execute(MutableLiveData<Result> result, Callable<Result> callable) {
-        if (executor != null) executor.shutdownNow();
-        executor = Executors.newFixedThreadPool(2);
-        executor.execute(() -> {
-            try {
-                if (Thread.interrupted()) return;
-                result.postValue(executor.submit(callable).get(Constant.TIMEOUT_VOD, TimeUnit.MILLISECONDS));
-            } catch (Throwable e) {
-                if (e instanceof InterruptedException || Thread.interrupted()) return;
-                if (e.getCause() instanceof ExtractException) result.postValue(Result.error(e.getCause().getMessage()));
+        scope.launch(getLane(result), Constant.TIMEOUT_VOD, callable, new TaskScope.Callback<Result>() {
+            @Override
+            public void success(Result item) {
+                result.postValue(item);
+            }
+
+            @Override
+            public void error(Throwable e) {
+                if (e instanceof ExtractException) result.postValue(Result.error(e.getMessage()));
                 else result.postValue(Result.empty());
                 Logger.e("Error", e);
             }
         });
     }
 
+    private int getLane(MutableLiveData<Result> result) {
+        if (result == player) return 1;
+        if (result == action) return 2;
+        return 0;
+    }
+
     @Override
     protected void onCleared() {
-        if (executor != null) executor.shutdownNow();
+        scope.close();
+        pages.clear();
     }
 }
@@ -0,0 +1,156 @@
+package com.fongmi.android.tv.model;
+
+import android.os.SystemClock;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+
+import com.fongmi.android.tv.App;
+import com.fongmi.android.tv.bean.Suggest;
+import com.fongmi.android.tv.impl.Callback;
+import com.fongmi.android.tv.utils.PinyinTrie;
+import com.fongmi.android.tv.utils.PinyinUtil;
+import com.github.catvod.net.OkHttp;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Response;
+
+/**
+ * 搜索联想 - 本地词典即时返回，远程请求去抖、取消过期请求并按前缀缓存，两者按来源排名合并
+ */
+public class SuggestService {
+
+    private static final String URL = "https://suggest.video.iqiyi.com/?if=mobile&key=";
+    private static final long TTL = TimeUnit.MINUTES.toMillis(10);
+    private static final LruCache<String, Entry> CACHE = new LruCache<>(128);
+    private static final long DELAY = 300;
+    private static final int LIMIT = 10;
+
+    private static boolean hotLoading;
+    private static long hotTime;
+
+    private final Listener listener;
+    private final Runnable task;
+    private List<String> local;
+    private String text;
+    private Call call;
+
+    public interface Listener {
+
+        void onSuggest(List<String> items);
+    }
+
+    public SuggestService(Listener listener) {
+        this.listener = listener;
+        this.task = this::fetch;
+        this.local = Collections.emptyList();
+        this.text = "";
+    }
+
+    /**
+     * 每次输入变化时调用：本地结果与缓存立即返回，远程请求在输入停顿后发出
+     */
+    public void request(String text) {
+        cancel();
+        this.text = text.trim();
+        if (this.text.isEmpty()) return;
+        local = PinyinTrie.get().find(this.text, LIMIT);
+        List<String> remote = getCache(this.text);
+        if (remote != null) listener.onSuggest(merge(local, remote));
+        else if (!local.isEmpty()) listener.onSuggest(local);
+        if (remote == null) App.post(task, DELAY);
+    }
+
+    /**
+     * 取消尚未发出或尚未返回的请求
+     */
+    public void cancel() {
+        App.removeCallbacks(task);
+        if (call != null) call.cancel();
+        call = null;
+    }
+
+    /**
+     * 热搜词在上次成功后的 TTL 内不再请求，同一时间只发出一个请求
+     */
+    public static synchronized boolean refreshHot() {
+        if (hotLoading || (hotTime > 0 && SystemClock.elapsedRealtime() - hotTime < TTL)) return false;
+        hotLoading = true;
+        return true;
+    }
+
+    /**
+     * 热搜词请求结束时调用，只有成功才开始计时
+     */
+    public static synchronized void onHot(boolean success) {
+        if (success) hotTime = SystemClock.elapsedRealtime();
+        hotLoading = false;
+    }
+
+    private void fetch() {
+        String text = this.text;
+        List<String> local = this.local;
+        call = OkHttp.newCall(URL + URLEncoder.encode(text));
+        call.enqueue(new Callback() {
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) throws IOException {
+                List<String> remote = Suggest.get(response.body().string());
+                CACHE.put(text, new Entry(remote));
+                App.post(() -> {
+                    if (text.equals(SuggestService.this.text)) listener.onSuggest(merge(local, remote));
+                });
+            }
+        });
+    }
+
+    private static List<String> getCache(String text) {
+        Entry entry = CACHE.get(text);
+        if (entry == null) return null;
+        if (!entry.isExpired()) return entry.items;
+        CACHE.remove(text);
+        return null;
+    }
+
+    /**
+     * 两边都有的排最前，其次本地，再次远程，各自保持原有顺序
+     */
+    private static List<String> merge(List<String> local, List<String> remote) {
+        Map<String, String> locals = index(local);
+        Map<String, String> remotes = index(remote);
+        List<String> items = new ArrayList<>();
+        for (Map.Entry<String, String> entry : locals.entrySet()) if (remotes.containsKey(entry.getKey())) items.add(entry.getValue());
+        for (Map.Entry<String, String> entry : locals.entrySet()) if (!remotes.containsKey(entry.getKey())) items.add(entry.getValue());
+        for (Map.Entry<String, String> entry : remotes.entrySet()) if (!locals.containsKey(entry.getKey())) items.add(entry.getValue());
+        return items;
+    }
+
+    private static Map<String, String> index(List<String> items) {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (String item : items) map.putIfAbsent(PinyinUtil.normalize(item), item);
+        return map;
+    }
+
+    private static class Entry {
+
+        private final List<String> items;
+        private final long time;
+
+        Entry(List<String> items) {
+            this.items = items;
+            this.time = SystemClock.elapsedRealtime();
+        }
+
+        boolean isExpired() {
+            return SystemClock.elapsedRealtime() - time > TTL;
+        }
+    }
+}
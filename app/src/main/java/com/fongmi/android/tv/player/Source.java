@@ -19,14 +19,15 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 public class Source {
 
     private final List<Extractor> extractors;
+    private final ThreadPoolExecutor executor;
 
     private static class Loader {
         static volatile Source INSTANCE = new Source();
@@ -46,6 +47,8 @@ public class Source {
         extractors.add(new TVBus());
         extractors.add(new Video());
         extractors.add(new Youtube());
+        executor = new ThreadPoolExecutor(Constant.THREAD_POOL, Constant.THREAD_POOL, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        executor.allowCoreThreadTimeOut(true);
     }
 
     private Extractor getExtractor(String url) {
@@ -55,6 +58,10 @@ public class Source {
         return null;
     }
 
+    public boolean hasExtractor(String url) {
+        return getExtractor(url) != null;
+    }
+
     private void addCallable(Iterator<Episode> iterator, List<Callable<List<Episode>>> items) {
         String url = iterator.next().getUrl();
         if (Thunder.Parser.match(url)) {
@@ -68,12 +75,11 @@ public class Source {
 
     public void parse(List<Flag> flags) throws Exception {
         for (Flag flag : flags) {
-            ExecutorService executor = Executors.newFixedThreadPool(Constant.THREAD_POOL);
             List<Callable<List<Episode>>> items = new ArrayList<>();
             Iterator<Episode> iterator = flag.getEpisodes().iterator();
             while (iterator.hasNext()) addCallable(iterator, items);
+            if (items.isEmpty()) continue;
             for (Future<List<Episode>> future : executor.invokeAll(items, 30, TimeUnit.SECONDS)) flag.getEpisodes().addAll(future.get());
-            executor.shutdownNow();
         }
     }
 
@@ -0,0 +1,133 @@
+package com.fongmi.android.tv.player.exo;
+
+import androidx.media3.common.MimeTypes;
+import androidx.media3.common.util.UriUtil;
+import androidx.media3.datasource.DataSpec;
+import androidx.media3.datasource.cache.CacheDataSource;
+import androidx.media3.datasource.cache.CacheWriter;
+import androidx.media3.datasource.okhttp.OkHttpDataSource;
+
+import com.fongmi.android.tv.Setting;
+import com.fongmi.android.tv.utils.UrlUtil;
+import com.github.catvod.net.OkHttp;
+import com.google.common.net.HttpHeaders;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.Headers;
+import okhttp3.Response;
+
+/**
+ * 预缓冲 - 将下一集开头的数据写入播放器缓存，切集时直接从缓存起播
+ * 只保留正在播放与下一集的缓存，其余在新预缓冲开始时清除
+ */
+public class Prebuffer {
+
+    private static final long LENGTH = 4 * 1024 * 1024;
+    private static final int SEGMENTS = 2;
+
+    private final Map<String, List<String>> entries;
+    private volatile CacheWriter writer;
+    private String current;
+
+    private static class Loader {
+        static volatile Prebuffer INSTANCE = new Prebuffer();
+    }
+
+    public static Prebuffer get() {
+        return Loader.INSTANCE;
+    }
+
+    private Prebuffer() {
+        this.entries = new LinkedHashMap<>();
+    }
+
+    public synchronized void play(String url) {
+        current = url;
+        retain(null);
+    }
+
+    public void cache(String url, String format, Map<String, String> headers) throws IOException {
+        synchronized (this) {
+            retain(url);
+        }
+        headers = checkUa(new HashMap<>(headers));
+        CacheDataSource dataSource = new CacheDataSource.Factory().setCache(CacheManager.get().getCache()).setUpstreamDataSourceFactory(new OkHttpDataSource.Factory(OkHttp.client()).setDefaultRequestProperties(headers)).createDataSource();
+        if (isHls(url, format)) for (String segment : getSegments(url, headers, true)) cache(url, dataSource, new DataSpec.Builder().setUri(segment).build());
+        else cache(url, dataSource, new DataSpec.Builder().setUri(UrlUtil.uri(url)).setLength(LENGTH).build());
+    }
+
+    public void cancel() {
+        CacheWriter writer = this.writer;
+        if (writer != null) writer.cancel();
+    }
+
+    public synchronized void remove() {
+        for (List<String> keys : entries.values()) remove(keys);
+        entries.clear();
+        current = null;
+    }
+
+    private void retain(String next) {
+        Iterator<Map.Entry<String, List<String>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, List<String>> entry = iterator.next();
+            if (entry.getKey().equals(current) || entry.getKey().equals(next)) continue;
+            remove(entry.getValue());
+            iterator.remove();
+        }
+    }
+
+    private void remove(List<String> keys) {
+        for (String key : keys) CacheManager.get().getCache().removeResource(key);
+    }
+
+    private void cache(String url, CacheDataSource dataSource, DataSpec dataSpec) throws IOException {
+        synchronized (this) {
+            List<String> keys = entries.computeIfAbsent(url, k -> new ArrayList<>());
+            String key = dataSpec.uri.toString();
+            if (!keys.contains(key)) keys.add(key);
+        }
+        try {
+            writer = new CacheWriter(dataSource, dataSpec, null, null);
+            writer.cache();
+        } finally {
+            writer = null;
+        }
+    }
+
+    private boolean isHls(String url, String format) {
+        String path = UrlUtil.uri(url).getPath();
+        return MimeTypes.APPLICATION_M3U8.equals(format) || (path != null && path.endsWith(".m3u8"));
+    }
+
+    private List<String> getSegments(String url, Map<String, String> headers, boolean master) throws IOException {
+        List<String> items = new ArrayList<>();
+        try (Response response = OkHttp.newCall(url, Headers.of(headers)).execute()) {
+            String base = response.request().url().toString();
+            String text = response.body().string();
+            if (text.contains("#EXT-X-BYTERANGE")) return items;
+            for (String line : text.split("\n")) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String uri = UriUtil.resolve(base, line);
+                if (text.contains("#EXT-X-STREAM-INF")) return master ? getSegments(uri, headers, false) : items;
+                items.add(uri);
+                if (items.size() == SEGMENTS) break;
+            }
+        }
+        return items;
+    }
+
+    private Map<String, String> checkUa(Map<String, String> headers) {
+        for (String key : headers.keySet()) if (HttpHeaders.USER_AGENT.equalsIgnoreCase(key)) return headers;
+        headers.put(HttpHeaders.USER_AGENT, Setting.getUa().isEmpty() ? ExoUtil.getUa() : Setting.getUa());
+        return headers;
+    }
+}
@@ -0,0 +1,204 @@
+package com.fongmi.android.tv.server;
+
+import android.content.Context;
+import android.net.wifi.WifiManager;
+import android.text.TextUtils;
+
+import com.fongmi.android.tv.App;
+import com.fongmi.android.tv.Setting;
+import com.github.catvod.utils.Logger;
+import com.github.catvod.utils.Util;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 局域网发现 - 随 Nano 启动，在广播与组播上应答查询并回复本机端口，查询方以来源地址加端口访问 /device
+ * 启动时广播一次通告，收到其它设备的通告记入 PEERS，扫描时优先探测
+ * 运行期间持有 MulticastLock，否则部分 Wi-Fi 芯片会丢弃组播包
+ */
+public class Beacon implements Runnable {
+
+    public static final String GROUP = "239.255.99.78";
+    public static final int PORT = 9978;
+
+    private static final String QUERY = "XMBOX?";
+    private static final String REPLY = "XMBOX!";
+
+    private static final Set<String> PEERS = getSaved();
+
+    private final int port;
+    private WifiManager.MulticastLock lock;
+    private MulticastSocket socket;
+
+    public Beacon(int port) {
+        this.port = port;
+    }
+
+    public void start() {
+        try {
+            acquire();
+            socket = new MulticastSocket(PORT);
+            socket.setBroadcast(true);
+            join(socket);
+            Thread thread = new Thread(this, "Beacon");
+            thread.setDaemon(true);
+            thread.start();
+        } catch (Exception e) {
+            Logger.e("Error", e);
+            stop();
+        }
+    }
+
+    public void stop() {
+        if (socket != null) socket.close();
+        if (lock != null && lock.isHeld()) lock.release();
+        socket = null;
+        lock = null;
+    }
+
+    private void acquire() {
+        WifiManager manager = (WifiManager) App.get().getApplicationContext().getSystemService(Context.WIFI_SERVICE);
+        if (manager == null) return;
+        lock = manager.createMulticastLock("Beacon");
+        lock.setReferenceCounted(false);
+        lock.acquire();
+    }
+
+    private static void join(MulticastSocket socket) {
+        try {
+            socket.joinGroup(InetAddress.getByName(GROUP));
+        } catch (Exception ignored) {
+        }
+    }
+
+    @Override
+    public void run() {
+        MulticastSocket socket = this.socket;
+        byte[] buffer = new byte[64];
+        byte[] reply = (REPLY + port).getBytes(StandardCharsets.UTF_8);
+        if (socket != null) announce(socket, reply);
+        while (socket != null && !socket.isClosed()) {
+            try {
+                DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+                socket.receive(packet);
+                String text = new String(packet.getData(), packet.getOffset(), packet.getLength(), StandardCharsets.UTF_8);
+                if (QUERY.equals(text)) socket.send(new DatagramPacket(reply, reply.length, packet.getSocketAddress()));
+                else addPeer(packet, port);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static void announce(DatagramSocket socket, byte[] reply) {
+        try {
+            for (InetAddress address : getTargets()) send(socket, new DatagramPacket(reply, reply.length, address, PORT));
+        } catch (Exception ignored) {
+        }
+    }
+
+    /**
+     * 曾经收到通告或扫描到的设备，重启后保留
+     */
+    public static Set<String> getPeers() {
+        return PEERS;
+    }
+
+    public static void addPeer(String url) {
+        if (PEERS.add(url)) save();
+    }
+
+    public static void removePeer(String url) {
+        if (PEERS.remove(url)) save();
+    }
+
+    private static Set<String> getSaved() {
+        Set<String> items = ConcurrentHashMap.newKeySet();
+        String peers = Setting.getPeers();
+        if (!peers.isEmpty()) items.addAll(Arrays.asList(peers.split(",")));
+        return items;
+    }
+
+    private static void save() {
+        Setting.putPeers(TextUtils.join(",", PEERS));
+    }
+
+    /**
+     * 发出查询并在 timeout 内收集应答，不含本机端口为 self 的服务
+     * @return 形如 http://ip:port 的地址
+     */
+    public static Set<String> discover(int timeout, int self) {
+        Set<String> urls = new LinkedHashSet<>();
+        try (DatagramSocket socket = new DatagramSocket()) {
+            socket.setBroadcast(true);
+            byte[] query = QUERY.getBytes(StandardCharsets.UTF_8);
+            for (InetAddress address : getTargets()) send(socket, new DatagramPacket(query, query.length, address, PORT));
+            byte[] buffer = new byte[64];
+            long end = System.currentTimeMillis() + timeout;
+            for (long remain = timeout; remain > 0; remain = end - System.currentTimeMillis()) {
+                DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+                socket.setSoTimeout((int) remain);
+                socket.receive(packet);
+                String url = getUrl(packet, self);
+                if (url != null) urls.add(url);
+            }
+        } catch (SocketTimeoutException ignored) {
+        } catch (Exception e) {
+            Logger.e("Error", e);
+        }
+        return urls;
+    }
+
+    private static void addPeer(DatagramPacket packet, int self) {
+        String url = getUrl(packet, self);
+        if (url != null) addPeer(url);
+    }
+
+    private static String getUrl(DatagramPacket packet, int self) {
+        try {
+            String text = new String(packet.getData(), packet.getOffset(), packet.getLength(), StandardCharsets.UTF_8);
+            if (!text.startsWith(REPLY)) return null;
+            int port = Integer.parseInt(text.substring(REPLY.length()));
+            if (port == self && isLocal(packet.getAddress())) return null;
+            return "http://" + packet.getAddress().getHostAddress() + ":" + port;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void send(DatagramSocket socket, DatagramPacket packet) {
+        try {
+            socket.send(packet);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static List<InetAddress> getTargets() throws IOException {
+        List<InetAddress> items = new ArrayList<>();
+        items.add(InetAddress.getByName("255.255.255.255"));
+        String ip = Util.getIp();
+        if (ip.contains(".")) items.add(InetAddress.getByName(ip.substring(0, ip.lastIndexOf('.') + 1) + "255"));
+        items.add(InetAddress.getByName(GROUP));
+        return items;
+    }
+
+    private static boolean isLocal(InetAddress address) {
+        try {
+            return address.isLoopbackAddress() || NetworkInterface.getByInetAddress(address) != null;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.github.catvod.utils.Util;
 public class Server {
 
     private Players player;
+    private Beacon beacon;
     private Nano nano;
 
     private static class Loader {
@@ -48,6 +49,8 @@ public class Server {
                 nano = new Nano(i);
                 nano.start(500);
                 Proxy.set(i);
+                beacon = new Beacon(i);
+                beacon.start();
                 break;
             } catch (Throwable e) {
                 nano = null;
@@ -56,7 +59,9 @@ public class Server {
     }
 
     public void stop() {
+        if (beacon != null) beacon.stop();
         if (nano != null) nano.stop();
+        beacon = null;
         nano = null;
     }
 }
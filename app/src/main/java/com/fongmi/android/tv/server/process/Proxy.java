@@ -23,6 +23,7 @@ public class Proxy implements Process {
             params.putAll(session.getHeaders());
             params.putAll(files);
             Object[] rs = BaseLoader.get().proxyLocal(params);
+            if (rs == null) return Nano.error("proxy not found");
             if (rs[0] instanceof NanoHTTPD.Response) return (NanoHTTPD.Response) rs[0];
             NanoHTTPD.Response response = NanoHTTPD.newChunkedResponse(NanoHTTPD.Response.Status.lookup((Integer) rs[0]), (String) rs[1], (InputStream) rs[2]);
             if (rs.length > 3 && rs[3] != null) for (Map.Entry<String, String> entry : ((Map<String, String>) rs[3]).entrySet()) response.addHeader(entry.getKey(), entry.getValue());
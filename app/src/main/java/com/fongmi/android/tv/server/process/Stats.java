@@ -0,0 +1,38 @@
+package com.fongmi.android.tv.server.process;
+
+import com.fongmi.android.tv.api.SpiderStats;
+import com.fongmi.android.tv.server.Nano;
+import com.fongmi.android.tv.server.impl.Process;
+
+import java.util.Map;
+
+import fi.iki.elonen.NanoHTTPD;
+
+public class Stats implements Process {
+
+    @Override
+    public boolean isRequest(NanoHTTPD.IHTTPSession session, String url) {
+        return url.startsWith("/stats");
+    }
+
+    @Override
+    public NanoHTTPD.Response doResponse(NanoHTTPD.IHTTPSession session, String url, Map<String, String> files) {
+        Map<String, String> params = session.getParms();
+        String action = params.get("do");
+        String key = params.get("key");
+        if ("reset".equals(action)) {
+            if (!isLocal(session)) return Nano.error(NanoHTTPD.Response.Status.FORBIDDEN, "reset is only allowed from this device");
+            SpiderStats.get().reset(key);
+            return Nano.ok();
+        }
+        return NanoHTTPD.newFixedLengthResponse(NanoHTTPD.Response.Status.OK, "application/json", SpiderStats.get().toJson(key).toString());
+    }
+
+    /**
+     * 统计数据参与站点排序与分阶段搜索，重置只接受本机发出的 POST
+     */
+    private boolean isLocal(NanoHTTPD.IHTTPSession session) {
+        String address = session.getHeaders().get("remote-addr");
+        return session.getMethod() == NanoHTTPD.Method.POST && ("127.0.0.1".equals(address) || "::1".equals(address) || "0:0:0:0:0:0:0:1".equals(address));
+    }
+}
@@ -39,6 +39,10 @@ public class ImgUtil {
         else Glide.with(App.get()).asDrawable().load(getUrl(url)).error(error).skipMemoryCache(false).dontAnimate().signature(getSignature(url)).into(target);
     }
 
+    public static void preload(String url) {
+        if (!TextUtils.isEmpty(url)) App.post(() -> Glide.with(App.get()).asBitmap().load(getUrl(url)).signature(getSignature(url)).preload());
+    }
+
     public static void rect(String text, String url, ImageView view) {
         load(text, url, view, ImageView.ScaleType.CENTER, true);
     }
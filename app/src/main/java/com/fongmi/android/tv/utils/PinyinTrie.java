@@ -0,0 +1,199 @@
+package com.fongmi.android.tv.utils;
+
+import com.fongmi.android.tv.api.config.VodConfig;
+import com.fongmi.android.tv.bean.Catalog;
+import com.fongmi.android.tv.db.AppDatabase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 联想词典 - 以标题、全拼与首字母为键的前缀树，每个节点保存排名最前的若干标题，按键查询无需遍历子树
+ * 语料来自观看记录、收藏、最近打开的详情与热搜词，随 Catalog 同步增量加入，条目删除或改名后在下次加载时重建
+ */
+public class PinyinTrie {
+
+    public static final int HOT = 1;
+
+    private static final int[] WEIGHT = {3, 4, 2};
+    private static final int DEPTH = 24;
+    private static final int TOP = 10;
+
+    private final Map<String, Entry> entries;
+    private final Map<Integer, String> rows;
+    private final Set<String> hots;
+    private volatile int cid;
+    private boolean stale;
+    private Node root;
+
+    private static class Loader {
+        static volatile PinyinTrie INSTANCE = new PinyinTrie();
+    }
+
+    public static PinyinTrie get() {
+        return Loader.INSTANCE;
+    }
+
+    public PinyinTrie() {
+        this.entries = new HashMap<>();
+        this.rows = new HashMap<>();
+        this.hots = new LinkedHashSet<>();
+        this.root = new Node();
+        this.cid = -1;
+    }
+
+    /**
+     * 在后台线程调用：站点配置变化或有条目被删除、改名时重建，否则只加入新增的条目
+     */
+    public void load() {
+        Catalog.sync();
+        int cid = VodConfig.getCid();
+        List<Catalog> items = AppDatabase.get().getCatalogDao().findAll(cid);
+        synchronized (this) {
+            if (this.cid != cid || stale || isRemoved(items)) rebuild(cid, items);
+            else for (Catalog item : items) add(item);
+        }
+    }
+
+    private boolean isRemoved(List<Catalog> items) {
+        Map<Integer, String> names = new HashMap<>();
+        for (Catalog item : items) names.put(item.getId(), item.getVodName());
+        for (Map.Entry<Integer, String> entry : rows.entrySet()) if (!entry.getValue().equals(names.get(entry.getKey()))) return true;
+        return false;
+    }
+
+    private void rebuild(int cid, List<Catalog> items) {
+        entries.clear();
+        rows.clear();
+        root = new Node();
+        stale = false;
+        this.cid = cid;
+        for (Catalog item : items) add(item);
+        for (String item : hots) add(item, HOT);
+    }
+
+    /**
+     * 加入一条片库记录，已加入的记录改名时只标记，下次加载时重建以移除旧名
+     */
+    public synchronized void add(Catalog item) {
+        if (item.getCid() != cid) return;
+        String name = rows.get(item.getId());
+        if (name != null && !name.equals(item.getVodName())) stale = true;
+        if (name != null) return;
+        rows.put(item.getId(), item.getVodName());
+        add(item.getVodName(), getWeight(item));
+    }
+
+    public synchronized void addAll(List<String> items, int weight) {
+        if (weight == HOT) hots.addAll(items);
+        for (String item : items) add(item, weight);
+    }
+
+    /**
+     * 加入一个标题，重复加入只保留较高的权重
+     */
+    public synchronized void add(String name, int weight) {
+        String text = PinyinUtil.normalize(name);
+        if (text.isEmpty()) return;
+        Entry entry = entries.get(text);
+        if (entry == null) entries.put(text, entry = new Entry(name, text.length()));
+        else if (entry.weight >= weight) return;
+        entry.weight = weight;
+        insert(text, entry);
+        insert(PinyinUtil.full(text), entry);
+        insert(PinyinUtil.initials(text), entry);
+    }
+
+    /**
+     * 按前缀查询，可输入汉字、全拼、首字母或其混合
+     */
+    public synchronized List<String> find(String prefix, int limit) {
+        String text = PinyinUtil.normalize(prefix);
+        List<String> items = new ArrayList<>();
+        if (text.isEmpty() || text.length() > DEPTH) return items;
+        Node node = root;
+        for (int i = 0; i < text.length() && node != null; i++) node = node.get(text.charAt(i));
+        if (node == null) return items;
+        for (int i = 0; i < node.size && items.size() < limit; i++) items.add(node.top[i].name);
+        return items;
+    }
+
+    private void insert(String key, Entry entry) {
+        Node node = root;
+        for (int i = 0; i < key.length() && i < DEPTH; i++) {
+            node = node.put(key.charAt(i));
+            node.rank(entry);
+        }
+    }
+
+    private static int getWeight(Catalog item) {
+        return item.getSource() < WEIGHT.length ? WEIGHT[item.getSource()] : HOT;
+    }
+
+    private static class Entry {
+
+        private final String name;
+        private final int length;
+        private int weight;
+
+        Entry(String name, int length) {
+            this.name = name;
+            this.length = length;
+        }
+
+        int compare(Entry other) {
+            return weight != other.weight ? Integer.compare(other.weight, weight) : Integer.compare(length, other.length);
+        }
+    }
+
+    /**
+     * 子节点按字符排序存放在数组中，二分查找
+     */
+    private static class Node {
+
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private final Entry[] top = new Entry[TOP];
+        private int size;
+
+        Node get(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node put(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index >= 0) return children[index];
+            index = -index - 1;
+            char[] k = new char[keys.length + 1];
+            Node[] n = new Node[children.length + 1];
+            System.arraycopy(keys, 0, k, 0, index);
+            System.arraycopy(children, 0, n, 0, index);
+            System.arraycopy(keys, index, k, index + 1, keys.length - index);
+            System.arraycopy(children, index, n, index + 1, children.length - index);
+            k[index] = c;
+            n[index] = new Node();
+            keys = k;
+            children = n;
+            return n[index];
+        }
+
+        void rank(Entry entry) {
+            int i = 0;
+            while (i < size && top[i] != entry) i++;
+            if (i < size) System.arraycopy(top, i + 1, top, i, --size - i);
+            int index = 0;
+            while (index < size && top[index].compare(entry) <= 0) index++;
+            if (index >= TOP) return;
+            int count = Math.min(size, TOP - 1) - index;
+            System.arraycopy(top, index, top, index + 1, count);
+            top[index] = entry;
+            size = Math.min(size + 1, TOP);
+        }
+    }
+}
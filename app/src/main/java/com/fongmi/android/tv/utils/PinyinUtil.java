@@ -0,0 +1,83 @@
+package com.fongmi.android.tv.utils;
+
+import android.icu.text.Transliterator;
+import android.text.TextUtils;
+
+import com.github.catvod.utils.Trans;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 拼音 - 借助系统 ICU 将汉字转为不带声调的拼音，按字缓存
+ */
+public class PinyinUtil {
+
+    private static final Map<Character, String> CACHE = new ConcurrentHashMap<>();
+    private static Transliterator transliterator;
+
+    private static boolean isHan(char c) {
+        return Character.UnicodeScript.of(c) == Character.UnicodeScript.HAN;
+    }
+
+    /**
+     * 繁体转简体、转小写，只保留文字与数字
+     */
+    public static String normalize(String text) {
+        if (TextUtils.isEmpty(text)) return "";
+        String value = Trans.t2s(false, text).toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) if (Character.isLetterOrDigit(value.charAt(i))) sb.append(value.charAt(i));
+        return sb.toString();
+    }
+
+    /**
+     * 单字拼音，非汉字原样返回（小写）
+     */
+    public static String get(char c) {
+        if (!isHan(c)) return String.valueOf(c).toLowerCase(Locale.ROOT);
+        String value = CACHE.get(c);
+        if (value == null) CACHE.put(c, value = transliterate(c));
+        return value;
+    }
+
+    /**
+     * 逐字拼音，汉字为一个音节，其它字符各自成项
+     */
+    public static List<String> split(String text) {
+        List<String> items = new ArrayList<>(text.length());
+        for (int i = 0; i < text.length(); i++) items.add(get(text.charAt(i)));
+        return items;
+    }
+
+    /**
+     * 全拼，例如 流浪地球 -> liulangdiqiu
+     */
+    public static String full(String text) {
+        StringBuilder sb = new StringBuilder();
+        for (String item : split(text)) sb.append(item);
+        return sb.toString();
+    }
+
+    /**
+     * 首字母，例如 流浪地球 -> lldq
+     */
+    public static String initials(String text) {
+        StringBuilder sb = new StringBuilder();
+        for (String item : split(text)) if (!item.isEmpty()) sb.append(item.charAt(0));
+        return sb.toString();
+    }
+
+    private static synchronized String transliterate(char c) {
+        try {
+            if (transliterator == null) transliterator = Transliterator.getInstance("Han-Latin; Latin-ASCII; Lower");
+            String value = transliterator.transliterate(String.valueOf(c)).trim();
+            return value.isEmpty() ? String.valueOf(c) : value;
+        } catch (Exception e) {
+            return String.valueOf(c);
+        }
+    }
+}
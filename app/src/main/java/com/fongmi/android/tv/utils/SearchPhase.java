@@ -0,0 +1,122 @@
+package com.fongmi.android.tv.utils;
+
+import android.os.SystemClock;
+
+import com.fongmi.android.tv.App;
+import com.fongmi.android.tv.api.SpiderStats;
+import com.fongmi.android.tv.api.config.VodConfig;
+import com.fongmi.android.tv.bean.Site;
+import com.github.catvod.utils.Logger;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * 两阶段搜索 - 先查询首页站点与支持快速搜索且历史上够快的站点，截止时间到或全部返回后再查询其余站点
+ * 两个阶段都以普通搜索查询，各站点是否在截止时间内返回都记入 SpiderStats，命中率可在 /stats 查看，也参与下次选择
+ */
+public class SearchPhase {
+
+    private final Callback callback;
+    private final Executor executor;
+    private final Runnable timeout;
+    private final Set<String> pending;
+    private final List<Site> quick;
+    private final List<Site> rest;
+    private final long deadline;
+    private volatile boolean cancelled;
+    private boolean finished;
+    private long start;
+    private int hit;
+
+    public interface Callback {
+
+        void search(Site site);
+
+        void onFinished();
+    }
+
+    /**
+     * @param deadline 第一阶段截止时间（毫秒），0 表示不分阶段
+     */
+    public SearchPhase(List<Site> sites, long deadline, Executor executor, Callback callback) {
+        this.quick = new ArrayList<>();
+        this.rest = new ArrayList<>();
+        this.pending = new HashSet<>();
+        this.timeout = this::finish;
+        this.executor = executor;
+        this.callback = callback;
+        this.deadline = deadline;
+        Site home = VodConfig.get().getHome();
+        for (Site site : sites) (deadline > 0 && (site.equals(home) || isQuick(site, deadline)) ? quick : rest).add(site);
+    }
+
+    private static boolean isQuick(Site site, long deadline) {
+        if (!site.isQuickSearch()) return false;
+        long latency = SpiderStats.get().getLatency(site.getKey(), SpiderStats.SEARCH);
+        return latency <= deadline && SpiderStats.get().getHitRate(site.getKey(), SpiderStats.DEADLINE) >= 0.5;
+    }
+
+    /**
+     * 在主线程调用
+     */
+    public void start() {
+        start = SystemClock.elapsedRealtime();
+        for (Site site : quick) pending.add(site.getKey());
+        for (Site site : quick) executor.execute(() -> search(site));
+        if (quick.isEmpty()) finish();
+        else App.post(timeout, deadline);
+    }
+
+    /**
+     * 停止后续阶段，不再记录命中
+     */
+    public void cancel() {
+        App.removeCallbacks(timeout);
+        cancelled = true;
+        finished = true;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    private void search(Site site) {
+        try {
+            callback.search(site);
+        } finally {
+            App.post(() -> onDone(site));
+        }
+    }
+
+    /**
+     * 第二阶段也记录是否在截止时间内返回，被排除的站点变快后可以回到第一阶段
+     */
+    private void measure(Site site) {
+        long begin = SystemClock.elapsedRealtime();
+        callback.search(site);
+        long millis = SystemClock.elapsedRealtime() - begin;
+        if (!cancelled && deadline > 0) SpiderStats.get().deadline(site.getKey(), millis, millis <= deadline);
+    }
+
+    private void onDone(Site site) {
+        if (finished || !pending.remove(site.getKey())) return;
+        SpiderStats.get().deadline(site.getKey(), SystemClock.elapsedRealtime() - start, true);
+        hit++;
+        if (pending.isEmpty()) finish();
+    }
+
+    private void finish() {
+        if (finished) return;
+        finished = true;
+        App.removeCallbacks(timeout);
+        for (String key : pending) SpiderStats.get().deadline(key, deadline, false);
+        if (!quick.isEmpty()) Logger.d("SearchPhase: " + hit + "/" + quick.size() + " in " + (SystemClock.elapsedRealtime() - start) + "ms");
+        pending.clear();
+        callback.onFinished();
+        for (Site site : rest) executor.execute(() -> measure(site));
+    }
+}
@@ -5,12 +5,9 @@ import android.text.TextUtils;
 import com.fongmi.android.tv.bean.Vod;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 /**
@@ -20,9 +17,31 @@ import java.util.Set;
  * 2. 相关性排序 - 根据标题与关键词的匹配程度排序
  * 3. 精确匹配优先 - 标题以关键词开头的优先显示
  * 4. 过滤无效结果 - 过滤标题为空或无效的结果
+ * 5. 增量合并 - 每个站点的结果按序插入已排序的汇总列表，只通知新增位置
+ * 6. 跨站聚类 - 不同站点的同一影片在汇总列表中只显示一条，其余记为来源
+ * 7. 固定前段 - 固定后新结果只在固定位置之后按序插入，不打乱用户正在看的部分
  */
 public class SearchResultOptimizer {
 
+    private final Comparator<Vod> comparator;
+    private final TitleCluster cluster;
+    private final Set<String> seen;
+    private final List<Vod> items;
+    private final String keyword;
+    private int floor;
+
+    /**
+     * @param keyword 搜索关键词
+     * @param items 汇总列表，合并结果直接写入
+     */
+    public SearchResultOptimizer(String keyword, List<Vod> items) {
+        this.keyword = TextUtils.isEmpty(keyword) ? "" : keyword.toLowerCase().trim();
+        this.comparator = this.keyword.isEmpty() ? (v1, v2) -> 0 : SearchResultOptimizer::compare;
+        this.cluster = new TitleCluster(keyword);
+        this.seen = new HashSet<>();
+        this.items = items;
+    }
+
     /**
      * 优化搜索结果
      * @param list 原始搜索结果列表
@@ -30,120 +49,122 @@ public class SearchResultOptimizer {
      * @return 优化后的结果列表
      */
     public static List<Vod> optimize(List<Vod> list, String keyword) {
-        if (list == null || list.isEmpty()) {
-            return new ArrayList<>();
-        }
-
-        // 1. 过滤无效结果
-        List<Vod> filtered = filterInvalid(list);
+        SearchResultOptimizer optimizer = new SearchResultOptimizer(keyword, new ArrayList<>());
+        if (list != null) optimizer.merge(list, null);
+        return optimizer.getItems();
+    }
 
-        // 2. 去重
-        List<Vod> deduplicated = deduplicate(filtered);
+    public List<Vod> getItems() {
+        return items;
+    }
 
-        // 3. 相关性排序
-        return sortByRelevance(deduplicated, keyword);
+    public int getMatched() {
+        return cluster.getMatched();
     }
 
     /**
-     * 过滤无效结果
+     * 固定 position 之前的结果，只能后移
      */
-    private static List<Vod> filterInvalid(List<Vod> list) {
-        List<Vod> result = new ArrayList<>();
-        for (Vod vod : list) {
-            String name = vod.getVodName();
-            // 过滤标题为空、null 或纯空白的结果
-            if (TextUtils.isEmpty(name) || name.trim().isEmpty()) {
-                continue;
-            }
-            // 过滤标题太短的结果（小于2个字符）
-            if (name.trim().length() < 2) {
-                continue;
-            }
-            result.add(vod);
-        }
-        return result;
+    public void freeze(int position) {
+        floor = Math.max(floor, Math.min(position, items.size()));
     }
 
     /**
-     * 去除重复结果
-     * 优先使用 vodId 去重，其次使用 vodName + vodYear 组合
+     * 合并一个站点的结果
+     * 过滤、去重与评分只处理本批数据，再二分查找插入位置，相同分数保持到达顺序
+     * 已有同一影片时不再插入，只把结果记为该条的来源
+     * @param list 站点返回的结果
+     * @param callback 插入或来源变化时回调对应位置，可为 null
+     * @return 本站点保留的结果（已排序）
      */
-    private static List<Vod> deduplicate(List<Vod> list) {
-        List<Vod> result = new ArrayList<>();
-        Set<String> seenIds = new HashSet<>();
-        Map<String, Integer> seenNames = new HashMap<>();
-
-        for (Vod vod : list) {
-            String id = vod.getVodId();
-            String name = vod.getVodName();
-            String year = vod.getVodYear();
-
-            // 优先根据 vodId 去重
-            if (!TextUtils.isEmpty(id)) {
-                if (seenIds.contains(id)) {
-                    continue;
-                }
-                seenIds.add(id);
+    public List<Vod> merge(List<Vod> list, Callback callback) {
+        List<Vod> batch = new ArrayList<>();
+        for (Vod vod : list) if (isValid(vod) && seen.add(getKey(vod))) batch.add(vod);
+        if (!keyword.isEmpty()) for (Vod vod : batch) vod.setSearchScore(calculateScore(vod, keyword));
+        batch.sort(comparator);
+        for (Vod vod : batch) {
+            Vod head = cluster.add(vod);
+            if (head != null) {
+                int position = indexOf(head);
+                if (callback != null && position >= 0) callback.onChanged(position, head);
             } else {
-                // 如果没有 vodId，则根据 name + year 组合去重
-                String key = (name + "_" + (year != null ? year : "")).toLowerCase().trim();
-                if (seenNames.containsKey(key)) {
-                    // 保留已有结果，丢弃重复的
-                    continue;
-                }
-                seenNames.put(key, 1);
+                int position = upperBound(vod);
+                items.add(position, vod);
+                if (callback != null) callback.onInserted(position, vod);
             }
-            result.add(vod);
         }
-        return result;
+        return batch;
     }
 
     /**
-     * 根据相关性排序
-     * 排序优先级：
-     * 1. 标题完全匹配关键词（权重最高）
-     * 2. 标题以关键词开头
-     * 3. 标题包含关键词
-     * 4. 按年份降序（越新的越靠前）
+     * 过滤无效结果
+     * 过滤标题为空、纯空白或太短（小于2个字符）的结果
      */
-    private static List<Vod> sortByRelevance(List<Vod> list, String keyword) {
-        if (TextUtils.isEmpty(keyword)) {
-            return list;
-        }
+    private static boolean isValid(Vod vod) {
+        String name = vod.getVodName();
+        return !TextUtils.isEmpty(name) && name.trim().length() >= 2;
+    }
 
-        final String searchKey = keyword.toLowerCase().trim();
+    /**
+     * 去重键
+     * 优先使用 vodId，其次使用 vodName + vodYear 组合，按站点区分
+     */
+    private static String getKey(Vod vod) {
+        String id = vod.getVodId();
+        if (!TextUtils.isEmpty(id)) return vod.getSiteKey() + "@" + id;
+        String year = vod.getVodYear();
+        return vod.getSiteKey() + "#" + (vod.getVodName() + "_" + (year != null ? year : "")).toLowerCase().trim();
+    }
 
-        // 计算每个结果的匹配分数
-        for (Vod vod : list) {
-            vod.setSearchScore(calculateScore(vod, searchKey));
+    /**
+     * 固定位置之后第一个排在 vod 之后的位置
+     */
+    private int upperBound(Vod vod) {
+        int low = floor, high = items.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(items.get(mid), vod) <= 0) low = mid + 1;
+            else high = mid;
         }
+        return low;
+    }
 
-        // 按分数降序排序
-        Collections.sort(list, new Comparator<Vod>() {
-            @Override
-            public int compare(Vod v1, Vod v2) {
-                // 首先按相关性分数排序
-                int scoreDiff = v2.getSearchScore() - v1.getSearchScore();
-                if (scoreDiff != 0) {
-                    return scoreDiff;
-                }
-                // 分数相同则按年份降序
-                String year1 = v1.getVodYear();
-                String year2 = v2.getVodYear();
-                if (year1 != null && year2 != null) {
-                    try {
-                        int y1 = Integer.parseInt(year1);
-                        int y2 = Integer.parseInt(year2);
-                        return y2 - y1; // 降序
-                    } catch (NumberFormatException e) {
-                        // 忽略
-                    }
-                }
-                return 0;
-            }
-        });
+    /**
+     * 固定部分逐个查找；其后有序，先二分到相同排序值的起点，再在相同排序值内按引用查找
+     */
+    private int indexOf(Vod vod) {
+        for (int i = 0; i < floor; i++) if (items.get(i) == vod) return i;
+        int low = floor, high = items.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(items.get(mid), vod) < 0) low = mid + 1;
+            else high = mid;
+        }
+        for (int i = low; i < items.size() && comparator.compare(items.get(i), vod) == 0; i++) if (items.get(i) == vod) return i;
+        return -1;
+    }
+
+    /**
+     * 排序优先级：
+     * 1. 相关性分数降序
+     * 2. 分数相同则按年份降序（越新的越靠前），年份缺失或无法解析视为 0
+     * 3. 仍相同则保持到达顺序（由 upperBound 保证）
+     * 必须是全序，upperBound 与 indexOf 依赖二分查找
+     */
+    private static int compare(Vod v1, Vod v2) {
+        int scoreDiff = Integer.compare(v2.getSearchScore(), v1.getSearchScore());
+        if (scoreDiff != 0) {
+            return scoreDiff;
+        }
+        return Integer.compare(getYear(v2), getYear(v1));
+    }
 
-        return list;
+    private static int getYear(Vod vod) {
+        try {
+            return Integer.parseInt(vod.getVodYear().trim());
+        } catch (Exception e) {
+            return 0;
+        }
     }
 
     /**
@@ -211,4 +232,11 @@ public class SearchResultOptimizer {
         }
         return true;
     }
+
+    public interface Callback {
+
+        void onInserted(int position, Vod item);
+
+        void onChanged(int position, Vod item);
+    }
 }
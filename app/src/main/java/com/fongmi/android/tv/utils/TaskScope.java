@@ -0,0 +1,107 @@
+package com.fongmi.android.tv.utils;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 任务作用域 - 在共享线程池上按通道执行任务，同通道新任务取消旧任务，作用域关闭时全部取消
+ * 预取任务使用独立线程池，不占用用户请求的线程
+ */
+public class TaskScope {
+
+    private static final ThreadPoolExecutor WORKER = worker(16);
+    private static final ThreadPoolExecutor PREFETCH = worker(4);
+    private static final ScheduledThreadPoolExecutor TIMER = timer();
+
+    private final Map<Integer, Job> jobs;
+    private volatile boolean closed;
+
+    public TaskScope() {
+        this.jobs = new ConcurrentHashMap<>();
+    }
+
+    private static ThreadPoolExecutor worker(int size) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static ScheduledThreadPoolExecutor timer() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    public static <T> Future<T> submit(Callable<T> callable) {
+        return PREFETCH.submit(callable);
+    }
+
+    public <T> void launch(int lane, long timeout, Callable<T> callable, Callback<? super T> callback) {
+        if (closed) return;
+        Job job = new Job();
+        Job prev = jobs.put(lane, job);
+        if (prev != null) prev.cancel();
+        job.future = WORKER.submit(() -> {
+            if (job.done.get()) return;
+            job.timer = TIMER.schedule(() -> {
+                if (!job.finish()) return;
+                if (job.future != null) job.future.cancel(true);
+                jobs.remove(lane, job);
+                callback.error(new TimeoutException());
+            }, timeout, TimeUnit.MILLISECONDS);
+            try {
+                T result = callable.call();
+                if (job.finish()) callback.success(result);
+            } catch (Throwable e) {
+                if (job.finish()) callback.error(e);
+            } finally {
+                jobs.remove(lane, job);
+            }
+        });
+    }
+
+    public void cancel(int lane) {
+        Job job = jobs.remove(lane);
+        if (job != null) job.cancel();
+    }
+
+    public void close() {
+        closed = true;
+        for (Job job : jobs.values()) job.cancel();
+        jobs.clear();
+    }
+
+    public interface Callback<T> {
+
+        void success(T result);
+
+        void error(Throwable e);
+    }
+
+    private static class Job {
+
+        private final AtomicBoolean done = new AtomicBoolean();
+        private volatile Future<?> future;
+        private volatile ScheduledFuture<?> timer;
+
+        private boolean finish() {
+            if (done.getAndSet(true)) return false;
+            if (timer != null) timer.cancel(false);
+            return true;
+        }
+
+        private void cancel() {
+            if (!finish()) return;
+            if (future != null) future.cancel(true);
+        }
+    }
+}
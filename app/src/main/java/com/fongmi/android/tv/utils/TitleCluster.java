@@ -0,0 +1,242 @@
+package com.fongmi.android.tv.utils;
+
+import com.fongmi.android.tv.bean.Vod;
+import com.github.catvod.utils.Trans;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 标题聚类 - 繁简转换后去掉标点、画质与年份等噪声生成聚类键，键相同或编辑距离足够小的结果归为同一条
+ * 短键只在年份一致时才允许编辑距离，键中数字（含中文数字）不同的不归为一条
+ */
+public class TitleCluster {
+
+    private static final Pattern BRACKET = Pattern.compile("[\\[【(（][^\\]】)）]*[\\]】)）]");
+    private static final Pattern QUALITY = Pattern.compile("(?<![a-z])(?:4k|8k|2160p|1080p|720p|hdr|hd|bd|tc|uhd|dvd)(?![a-z])|蓝光|原盘|高清|超清|标清|国语|粤语|中字|中英字幕|双语|无删减|未删减|完整版|完结|全集|枪版");
+    private static final Pattern SEASON = Pattern.compile("第([0-9一二三四五六七八九十两]+)[季部]|(?<![a-z])(?:season|s)\\s*0*(\\d{1,2})(?!\\d)");
+    private static final Pattern YEAR = Pattern.compile("(?<!\\d)(?:19|20)\\d{2}(?!\\d)");
+    private static final String NUMBER = "零一二三四五六七八九";
+    private static final int BUCKET = 64;
+
+    private final Map<String, List<Vod>> buckets;
+    private final Map<String, Vod> heads;
+    private final String target;
+    private int matched;
+
+    /**
+     * @param keyword 搜索关键词，标题包含关键词的聚类计为命中
+     */
+    public TitleCluster(String keyword) {
+        this.buckets = new HashMap<>();
+        this.heads = new HashMap<>();
+        this.target = key(keyword);
+    }
+
+    /**
+     * 在后台线程预先计算聚类键，合并时只做哈希查找
+     */
+    public static void prepare(List<Vod> items) {
+        for (Vod item : items) item.setCluster(key(item.getVodName()));
+    }
+
+    /**
+     * 归并一批结果
+     * @return 本批新出现的聚类代表，已归入其它聚类的结果只记录为来源
+     */
+    public List<Vod> group(List<Vod> items) {
+        List<Vod> result = new ArrayList<>();
+        for (Vod item : items) if (add(item) == null) result.add(item);
+        return result;
+    }
+
+    /**
+     * 归并一条结果
+     * @return 所归入聚类的代表，为 null 时该结果成为新的聚类代表
+     */
+    public Vod add(Vod item) {
+        String key = getKey(item);
+        Vod head = find(key, item);
+        if (head != null) {
+            if (!isSame(head, item)) head.addSource(item);
+            return head;
+        }
+        heads.putIfAbsent(key, item);
+        if (!target.isEmpty() && key.contains(target)) matched++;
+        List<Vod> bucket = buckets.get(getBucket(key));
+        if (bucket == null) buckets.put(getBucket(key), bucket = new ArrayList<>());
+        bucket.add(item);
+        return null;
+    }
+
+    /**
+     * 标题包含关键词的聚类数量
+     */
+    public int getMatched() {
+        return matched;
+    }
+
+    private Vod find(String key, Vod item) {
+        Vod head = heads.get(key);
+        if (head != null && isSameYear(head, item)) return head;
+        List<Vod> bucket = buckets.get(getBucket(key));
+        if (bucket == null) return null;
+        String year = getYear(item);
+        String digits = null;
+        for (int i = 0; i < bucket.size() && i < BUCKET; i++) {
+            Vod candidate = bucket.get(i);
+            String other = getKey(candidate);
+            if (Math.abs(key.length() - other.length()) > 2) continue;
+            String value = getYear(candidate);
+            if (!year.isEmpty() && !value.isEmpty() && !year.equals(value)) continue;
+            if (digits == null) digits = getDigits(key);
+            if (!digits.equals(getDigits(other))) continue;
+            int max = getMax(key, other, !year.isEmpty() && year.equals(value));
+            if (distance(key, other, max) <= max) return candidate;
+        }
+        return null;
+    }
+
+    private static String getKey(Vod item) {
+        if (item.getCluster() == null) item.setCluster(key(item.getVodName()));
+        return item.getCluster();
+    }
+
+    private static String getBucket(String key) {
+        return key.length() <= 2 ? key : key.substring(0, 2);
+    }
+
+    private static int getMax(String key, String other, boolean year) {
+        int length = Math.min(key.length(), other.length());
+        if (length < 6 && !year) return 0;
+        return length < 4 ? 0 : length < 8 ? 1 : 2;
+    }
+
+    private static String getDigits(String key) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0, j; i < key.length(); i = j) {
+            j = i + 1;
+            char c = key.charAt(i);
+            if (Character.isDigit(c)) {
+                while (j < key.length() && Character.isDigit(key.charAt(j))) j++;
+                sb.append(key, i, j).append(',');
+            } else if (isNumber(c)) {
+                while (j < key.length() && isNumber(key.charAt(j))) j++;
+                sb.append(number(key.substring(i, j))).append(',');
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean isNumber(char c) {
+        return c == '十' || (c != '零' && NUMBER.indexOf(c) >= 0);
+    }
+
+    private static boolean isSame(Vod v1, Vod v2) {
+        return v1.getSiteKey().equals(v2.getSiteKey()) && v1.getVodId().equals(v2.getVodId());
+    }
+
+    private static boolean isSameYear(Vod v1, Vod v2) {
+        String y1 = getYear(v1);
+        String y2 = getYear(v2);
+        return y1.isEmpty() || y2.isEmpty() || y1.equals(y2);
+    }
+
+    private static String getYear(Vod item) {
+        String year = item.getVodYear();
+        return year.length() >= 4 && YEAR.matcher(year.substring(0, 4)).matches() ? year.substring(0, 4) : "";
+    }
+
+    /**
+     * 生成聚类键
+     * 1. 繁体转简体、全角转半角、转小写
+     * 2. 去掉方括号与圆括号内的附加信息、画质与语言标记、年份
+     * 3. 季数统一为 s + 数字，不同季不会归为一条
+     * 4. 只保留文字与数字
+     */
+    public static String key(String name) {
+        if (name == null) return "";
+        String text = narrow(Trans.t2s(false, name)).toLowerCase(Locale.ROOT);
+        String key = clean(BRACKET.matcher(text).replaceAll(" "));
+        return key.isEmpty() ? clean(text) : key;
+    }
+
+    private static String clean(String text) {
+        text = QUALITY.matcher(text).replaceAll(" ");
+        text = season(text);
+        String stripped = YEAR.matcher(text).replaceAll(" ");
+        return strip(strip(stripped).isEmpty() ? text : stripped);
+    }
+
+    private static String season(String text) {
+        Matcher matcher = SEASON.matcher(text);
+        if (!matcher.find()) return text;
+        StringBuffer sb = new StringBuffer();
+        do {
+            String value = matcher.group(1) != null ? String.valueOf(number(matcher.group(1))) : String.valueOf(Integer.parseInt(matcher.group(2)));
+            matcher.appendReplacement(sb, " s" + value + " ");
+        } while (matcher.find());
+        matcher.appendTail(sb);
+        return sb.toString();
+    }
+
+    private static int number(String text) {
+        if (Character.isDigit(text.charAt(0))) return Integer.parseInt(text);
+        int result = 0, unit = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '十') {
+                result += (unit == 0 ? 1 : unit) * 10;
+                unit = 0;
+            } else {
+                unit = c == '两' ? 2 : NUMBER.indexOf(c);
+            }
+        }
+        return result + unit;
+    }
+
+    private static String narrow(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            if (chars[i] == '　') chars[i] = ' ';
+            else if (chars[i] >= '！' && chars[i] <= '～') chars[i] -= 0xFEE0;
+        }
+        return new String(chars);
+    }
+
+    private static String strip(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) if (Character.isLetterOrDigit(text.charAt(i))) sb.append(text.charAt(i));
+        return sb.toString();
+    }
+
+    /**
+     * 有限编辑距离，超过 max 提前返回 max + 1
+     */
+    static int distance(String a, String b, int max) {
+        int n = a.length(), m = b.length();
+        if (Math.abs(n - m) > max) return max + 1;
+        int[] prev = new int[m + 1];
+        int[] curr = new int[m + 1];
+        for (int j = 0; j <= m; j++) prev[j] = j;
+        for (int i = 1; i <= n; i++) {
+            curr[0] = i;
+            int best = i;
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                curr[j] = Math.min(Math.min(prev[j] + 1, curr[j - 1] + 1), prev[j - 1] + cost);
+                best = Math.min(best, curr[j]);
+            }
+            if (best > max) return max + 1;
+            int[] temp = prev;
+            prev = curr;
+            curr = temp;
+        }
+        return prev[m];
+    }
+}
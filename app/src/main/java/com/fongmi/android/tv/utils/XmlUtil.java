@@ -0,0 +1,42 @@
+package com.fongmi.android.tv.utils;
+
+import android.util.Xml;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.io.Reader;
+
+public class XmlUtil {
+
+    public static XmlPullParser parser(Reader reader) throws XmlPullParserException {
+        XmlPullParser parser = Xml.newPullParser();
+        parser.setInput(reader);
+        return parser;
+    }
+
+    public static boolean child(XmlPullParser parser, int depth) throws XmlPullParserException, IOException {
+        int type;
+        while ((type = parser.next()) != XmlPullParser.END_DOCUMENT) {
+            if (type == XmlPullParser.END_TAG && parser.getDepth() == depth) return false;
+            if (type == XmlPullParser.START_TAG && parser.getDepth() == depth + 1) return true;
+        }
+        return false;
+    }
+
+    public static String text(XmlPullParser parser) throws XmlPullParserException, IOException {
+        StringBuilder sb = new StringBuilder();
+        int depth = parser.getDepth();
+        int type;
+        while ((type = parser.next()) != XmlPullParser.END_DOCUMENT) {
+            if (type == XmlPullParser.END_TAG && parser.getDepth() == depth) break;
+            if (type == XmlPullParser.TEXT) sb.append(parser.getText());
+        }
+        return sb.toString();
+    }
+
+    public static String attr(XmlPullParser parser, String name) {
+        return parser.getAttributeValue(null, name);
+    }
+}
@@ -8,7 +8,6 @@ import android.text.TextUtils;
 import android.view.View;
 import android.view.inputmethod.EditorInfo;
 
-import androidx.annotation.NonNull;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.viewbinding.ViewBinding;
@@ -17,17 +16,20 @@ import com.fongmi.android.tv.App;
 import com.fongmi.android.tv.Product;
 import com.fongmi.android.tv.R;
 import com.fongmi.android.tv.Setting;
+import com.fongmi.android.tv.api.SiteRanker;
+import com.fongmi.android.tv.api.SpiderStats;
 import com.fongmi.android.tv.api.config.VodConfig;
+import com.fongmi.android.tv.bean.Catalog;
 import com.fongmi.android.tv.bean.Collect;
 import com.fongmi.android.tv.bean.Hot;
 import com.fongmi.android.tv.bean.Result;
 import com.fongmi.android.tv.bean.Site;
-import com.fongmi.android.tv.bean.Suggest;
 import com.fongmi.android.tv.bean.Vod;
 import com.fongmi.android.tv.databinding.ActivityCollectBinding;
-import com.fongmi.android.tv.impl.Callback;
+import com.fongmi.android.tv.event.RefreshEvent;
 import com.fongmi.android.tv.impl.SiteCallback;
 import com.fongmi.android.tv.model.SiteViewModel;
+import com.fongmi.android.tv.model.SuggestService;
 import com.fongmi.android.tv.ui.adapter.CollectAdapter;
 import com.fongmi.android.tv.ui.adapter.RecordAdapter;
 import com.fongmi.android.tv.ui.adapter.SearchAdapter;
@@ -39,24 +41,24 @@ import com.fongmi.android.tv.ui.custom.CustomScroller;
 import com.fongmi.android.tv.ui.custom.CustomTextListener;
 import com.fongmi.android.tv.ui.dialog.SiteDialog;
 import com.fongmi.android.tv.utils.PauseExecutor;
+import com.fongmi.android.tv.utils.PinyinTrie;
 import com.fongmi.android.tv.utils.ResUtil;
+import com.fongmi.android.tv.utils.SearchPhase;
 import com.fongmi.android.tv.utils.SearchResultOptimizer;
 import com.fongmi.android.tv.utils.Util;
-import com.github.catvod.net.OkHttp;
 import com.google.android.flexbox.FlexDirection;
 import com.google.android.flexbox.FlexboxLayoutManager;
 import com.airbnb.lottie.LottieAnimationView;
 
-import java.io.IOException;
-import java.net.URLEncoder;
+import org.greenrobot.eventbus.Subscribe;
+import org.greenrobot.eventbus.ThreadMode;
+
 import java.util.ArrayList;
 import java.util.List;
 
-import okhttp3.Call;
-import okhttp3.Response;
-
 public class CollectActivity extends BaseActivity implements CustomScroller.Callback, SiteCallback, WordAdapter.OnClickListener, RecordAdapter.OnClickListener, CollectAdapter.OnClickListener, VodAdapter.OnClickListener {
 
+    private SearchResultOptimizer mOptimizer;
     private ActivityCollectBinding mBinding;
     private CollectAdapter mCollectAdapter;
     private SearchAdapter mSearchAdapter;
@@ -64,7 +66,9 @@ public class CollectActivity extends BaseActivity implements CustomScroller.Call
     private WordAdapter mWordAdapter;
     private CustomScroller mScroller;
     private SiteViewModel mViewModel;
+    private SuggestService mSuggest;
     private PauseExecutor mExecutor;
+    private SearchPhase mPhase;
     private List<Site> mSites;
 
     public static void start(Activity activity) {
@@ -93,7 +97,9 @@ public class CollectActivity extends BaseActivity implements CustomScroller.Call
     @Override
     protected void initView(Bundle savedInstanceState) {
         mScroller = new CustomScroller(this);
+        mSuggest = new SuggestService(items -> mWordAdapter.addAll(items));
         mSites = new ArrayList<>();
+        App.execute(PinyinTrie.get()::load);
         setRecyclerView();
         setViewModel();
         checkKeyword();
@@ -114,8 +120,12 @@ public class CollectActivity extends BaseActivity implements CustomScroller.Call
         mBinding.keyword.addTextChangedListener(new CustomTextListener() {
             @Override
             public void afterTextChanged(Editable s) {
-                if (s.toString().isEmpty()) getHot();
-                else getSuggest(s.toString());
+                if (s.toString().isEmpty()) {
+                    mSuggest.cancel();
+                    getHot();
+                } else {
+                    getSuggest(s.toString());
+                }
             }
         });
     }
@@ -150,12 +160,11 @@ public class CollectActivity extends BaseActivity implements CustomScroller.Call
     private void setViewModel() {
         mViewModel = new ViewModelProvider(this).get(SiteViewModel.class);
         mViewModel.search.observe(this, result -> {
-            // 使用搜索结果优化器处理结果
-            String keyword = mBinding.keyword.getText().toString().trim();
-            List<Vod> optimizedList = SearchResultOptimizer.optimize(result.getList(), keyword);
-            if (mCollectAdapter.getPosition() == 0) mSearchAdapter.addAll(optimizedList);
-            mCollectAdapter.add(Collect.create(optimizedList));
-            mCollectAdapter.add(optimizedList);
+            // 使用搜索结果优化器增量合并结果
+            if (mOptimizer == null) return;
+            List<Vod> items = merge(result.getList());
+            if (!items.isEmpty()) mCollectAdapter.add(Collect.create(items));
+            checkEnough(mOptimizer.getMatched());
             updateEmptyState();
         });
         mViewModel.result.observe(this, result -> {
@@ -179,6 +188,7 @@ public class CollectActivity extends BaseActivity implements CustomScroller.Call
 
     private void setSite() {
         for (Site site : VodConfig.get().getSites()) if (site.isSearchable()) mSites.add(site);
+        SiteRanker.get().sort(mSites);
         Site home = VodConfig.get().getHome();
         if (!mSites.contains(home)) return;
         mSites.remove(home);
@@ -195,13 +205,74 @@ public class CollectActivity extends BaseActivity implements CustomScroller.Call
         mBinding.view.setVisibility(View.VISIBLE);
         mBinding.result.setVisibility(View.VISIBLE);
         updateEmptyState(); // 搜索开始时显示空状态
-        if (mExecutor != null) mExecutor.shutdownNow();
+        stop();
         mExecutor = new PauseExecutor(20);
         String keyword = mBinding.keyword.getText().toString().trim();
-        for (Site site : mSites) mExecutor.execute(() -> search(site, keyword));
+        mOptimizer = new SearchResultOptimizer(keyword, mCollectAdapter.getAll());
+        searchLocal(mOptimizer, keyword);
+        mPhase = new SearchPhase(mSites, Setting.getSearchDeadline(), mExecutor, new SearchPhase.Callback() {
+            @Override
+            public void search(Site site) {
+                CollectActivity.this.search(site, keyword);
+            }
+
+            @Override
+            public void onFinished() {
+                freeze();
+            }
+        });
+        mPhase.start();
         App.post(() -> mRecordAdapter.add(keyword), 250);
     }
 
+    private void searchLocal(SearchResultOptimizer optimizer, String keyword) {
+        App.execute(() -> {
+            List<Vod> items = Catalog.search(keyword);
+            if (!items.isEmpty()) App.post(() -> {
+                if (optimizer != mOptimizer) return;
+                merge(items);
+                updateEmptyState();
+            });
+        });
+    }
+
+    private List<Vod> merge(List<Vod> list) {
+        boolean all = mCollectAdapter.getPosition() == 0;
+        if (all) freeze();
+        return mOptimizer.merge(list, new SearchResultOptimizer.Callback() {
+            @Override
+            public void onInserted(int position, Vod item) {
+                if (all) mSearchAdapter.add(position, item);
+            }
+
+            @Override
+            public void onChanged(int position, Vod item) {
+                if (all) mSearchAdapter.notifyItemChanged(position);
+            }
+        });
+    }
+
+    /**
+     * 第一阶段结束后，已显示的结果保持不动，后到的结果排在可见区域之后
+     */
+    private void freeze() {
+        if (mPhase == null || !mPhase.isFinished() || mCollectAdapter.getPosition() != 0) return;
+        mOptimizer.freeze(((GridLayoutManager) mBinding.recycler.getLayoutManager()).findLastVisibleItemPosition() + 1);
+    }
+
+    private void checkEnough(int matched) {
+        int enough = Setting.getSearchEnough();
+        if (enough <= 0 || matched < enough) return;
+        if (mExecutor != null) mExecutor.getQueue().clear();
+        if (mPhase != null) mPhase.cancel();
+    }
+
+    private void stop() {
+        if (mPhase != null) mPhase.cancel();
+        if (mExecutor != null) mExecutor.shutdownNow();
+        mPhase = null;
+    }
+
     private void updateEmptyState() {
         // 只有在结果页面可见且搜索结果为空时才显示空状态动画
         boolean isResultVisible = isVisible(mBinding.result);
@@ -237,14 +308,7 @@ public class CollectActivity extends BaseActivity implements CustomScroller.Call
 
     private void getSuggest(String text) {
         mBinding.word.setText(R.string.search_suggest);
-        OkHttp.newCall("https://suggest.video.iqiyi.com/?if=mobile&key=" + URLEncoder.encode(text)).enqueue(new Callback() {
-            @Override
-            public void onResponse(@NonNull Call call, @NonNull Response response) throws IOException {
-                if (mBinding.keyword.getText().toString().trim().isEmpty()) return;
-                List<String> items = Suggest.get(response.body().string());
-                App.post(() -> mWordAdapter.addAll(items));
-            }
-        });
+        mSuggest.request(text);
     }
 
     private void onSite(View view) {
@@ -265,7 +329,8 @@ public class CollectActivity extends BaseActivity implements CustomScroller.Call
         mBinding.site.setVisibility(View.VISIBLE);
         mBinding.agent.setVisibility(View.VISIBLE);
         mBinding.emptyLayout.getRoot().setVisibility(View.GONE); // 隐藏空状态动画
-        if (mExecutor != null) mExecutor.shutdownNow();
+        stop();
+        mOptimizer = null;
     }
 
     @Override
@@ -300,10 +365,17 @@ public class CollectActivity extends BaseActivity implements CustomScroller.Call
         mScroller.setPage(item.getPage());
         mScroller.setLoading(false);
         mScroller.setEnable(0); // 0表示启用加载更多，不限制页数
+        setThreshold(item.getSite());
+    }
+
+    private void setThreshold(Site site) {
+        int span = ((GridLayoutManager) mBinding.recycler.getLayoutManager()).getSpanCount();
+        mScroller.setThreshold("all".equals(site.getKey()) ? 0 : mViewModel.getThreshold(site.getKey(), SpiderStats.SEARCH) * span);
     }
 
     @Override
     public void onItemClick(Vod item) {
+        SiteRanker.get().click(item.getSiteKey());
         if (item.isFolder()) FolderActivity.start(this, item.getSiteKey(), Result.folder(item));
         else VideoActivity.collect(this, item.getSiteKey(), item.getVodId(), item.getVodName(), item.getVodPic());
     }
@@ -322,6 +394,19 @@ public class CollectActivity extends BaseActivity implements CustomScroller.Call
         mScroller.setLoading(true);
     }
 
+    @Override
+    public void onPrefetch(String page) {
+        Collect activated = mCollectAdapter.getActivated();
+        if ("all".equals(activated.getSite().getKey())) return;
+        mViewModel.prefetchSearch(activated.getSite(), mBinding.keyword.getText().toString(), page);
+    }
+
+    @Subscribe(threadMode = ThreadMode.MAIN)
+    public void onRefreshEvent(RefreshEvent event) {
+        super.onRefreshEvent(event);
+        if (event.getType() == RefreshEvent.Type.IMAGE) mSearchAdapter.notifyItemRangeChanged(0, mSearchAdapter.getItemCount());
+    }
+
     @Override
     protected void onResume() {
         super.onResume();
@@ -334,6 +419,13 @@ public class CollectActivity extends BaseActivity implements CustomScroller.Call
         if (mExecutor != null) mExecutor.pause();
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        mSuggest.cancel();
+        stop();
+    }
+
     @Override
     public void onBackPressed() {
         if (isVisible(mBinding.result)) {
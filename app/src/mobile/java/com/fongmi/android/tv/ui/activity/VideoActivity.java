@@ -76,6 +76,7 @@ import com.fongmi.android.tv.event.CastEvent;
 import com.fongmi.android.tv.event.ErrorEvent;
 import com.fongmi.android.tv.event.PlayerEvent;
 import com.fongmi.android.tv.event.RefreshEvent;
+import com.fongmi.android.tv.model.EpisodePrefetcher;
 import com.fongmi.android.tv.model.SiteViewModel;
 import com.fongmi.android.tv.player.Players;
 import com.fongmi.android.tv.player.exo.ExoUtil;
@@ -922,6 +923,12 @@ public class VideoActivity extends BaseActivity implements Clock.Callback, Custo
         else if (notify) Notify.show(R.string.error_play_next);
     }
 
+    private void preloadNext() {
+        if (mEpisodeAdapter.getItemCount() == 0 || mBinding.control.action.loop.isActivated()) return;
+        Episode item = mEpisodeAdapter.getNext();
+        if (!item.isActivated()) EpisodePrefetcher.get().prepare(getKey(), getFlag().getFlag(), item);
+    }
+
     private void checkPrev() {
         setR1Callback();
         Episode item = mEpisodeAdapter.getPrev();
@@ -1329,6 +1336,7 @@ public class VideoActivity extends BaseActivity implements Clock.Callback, Custo
         mHistory.setPosition(position = mPlayers.getPosition());
         mHistory.setDuration(duration = mPlayers.getDuration());
         if (position >= 0 && duration > 0 && !Setting.isIncognito()) App.execute(() -> mHistory.update());
+        if (EpisodePrefetcher.isTime(position, duration, mHistory.getEnding())) preloadNext();
         if (mHistory.getEnding() > 0 && duration > 0 && mHistory.getEnding() + position >= duration) {
             checkEnded(false);
         }
@@ -2022,6 +2030,7 @@ public class VideoActivity extends BaseActivity implements Clock.Callback, Custo
         super.onDestroy();
         stopSearch();
         mPlayers.release();
+        EpisodePrefetcher.get().clear();
         mClock.release();
         Timer.get().reset();
         RefreshEvent.history();
@@ -39,8 +39,8 @@ public class CollectAdapter extends RecyclerView.Adapter<CollectAdapter.ViewHold
         notifyItemInserted(mItems.size() - 1);
     }
 
-    public void add(List<Vod> items) {
-        mItems.get(0).getList().addAll(items);
+    public List<Vod> getAll() {
+        return mItems.get(0).getList();
     }
 
     public int getPosition() {
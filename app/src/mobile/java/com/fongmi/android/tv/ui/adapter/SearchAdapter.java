@@ -62,6 +62,11 @@ public class SearchAdapter extends RecyclerView.Adapter<BaseVodHolder> {
         notifyItemRangeInserted(position, items.size());
     }
 
+    public void add(int position, Vod item) {
+        mItems.add(position, item);
+        notifyItemInserted(position);
+    }
+
     public SearchAdapter clear() {
         mItems.clear();
         notifyDataSetChanged();
@@ -1,5 +1,7 @@
 package com.fongmi.android.tv.ui.custom;
 
+import android.view.View;
+
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
@@ -10,6 +12,8 @@ public class CustomScroller extends RecyclerView.OnScrollListener {
     private final Callback callback;
     private boolean loading;
     private boolean enable;
+    private int threshold;
+    private int prefetch;
     private int page;
 
     public CustomScroller(Callback callback) {
@@ -20,15 +24,35 @@ public class CustomScroller extends RecyclerView.OnScrollListener {
 
     @Override
     public void onScrolled(@NonNull RecyclerView view, int dx, int dy) {
+        checkPrefetch(view);
         if (isDisable() || isLoading() || view.getScrollState() == RecyclerView.SCROLL_STATE_IDLE || callback == null) return;
         if (!view.canScrollVertically(1) && dy > 0) callback.onLoadMore(String.valueOf(++page));
     }
 
+    private void checkPrefetch(RecyclerView view) {
+        if (isDisable() || isLoading() || threshold <= 0 || prefetch > page || callback == null) return;
+        if (getRemain(view) > threshold) return;
+        prefetch = page + 1;
+        callback.onPrefetch(String.valueOf(prefetch));
+    }
+
+    private int getRemain(RecyclerView view) {
+        RecyclerView.LayoutManager manager = view.getLayoutManager();
+        if (manager == null || manager.getChildCount() == 0) return Integer.MAX_VALUE;
+        View lastChild = manager.getChildAt(manager.getChildCount() - 1);
+        return manager.getItemCount() - 1 - manager.getPosition(lastChild);
+    }
+
     public void reset() {
+        prefetch = 0;
         enable = true;
         page = 1;
     }
 
+    public void setThreshold(int threshold) {
+        this.threshold = threshold;
+    }
+
     public int addPage() {
         return ++page;
     }
@@ -38,6 +62,7 @@ public class CustomScroller extends RecyclerView.OnScrollListener {
     }
 
     public void setPage(int page) {
+        this.prefetch = 0;
         this.page = page;
     }
 
@@ -65,5 +90,8 @@ public class CustomScroller extends RecyclerView.OnScrollListener {
 
     public interface Callback {
         void onLoadMore(String page);
+
+        default void onPrefetch(String page) {
+        }
     }
 }
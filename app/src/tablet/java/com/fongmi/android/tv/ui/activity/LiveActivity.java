@@ -26,6 +26,7 @@ import com.fongmi.android.tv.App;
 import com.fongmi.android.tv.Constant;
 import com.fongmi.android.tv.R;
 import com.fongmi.android.tv.Setting;
+import com.fongmi.android.tv.api.LiveParser;
 import com.fongmi.android.tv.api.config.LiveConfig;
 import com.fongmi.android.tv.bean.CastVideo;
 import com.fongmi.android.tv.bean.Channel;
@@ -726,6 +727,7 @@ public class LiveActivity extends BaseActivity implements CustomKeyDownLive.List
     @Override
     public void setLive(Live item) {
         if (item.isActivated()) item.getGroups().clear();
+        if (item.isActivated()) LiveParser.refresh(item);
         LiveConfig.get().setHome(item);
         mPlayers.reset();
         mPlayers.stop();
@@ -13,6 +13,7 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 import androidx.viewbinding.ViewBinding;
 
 import com.fongmi.android.tv.Product;
+import com.fongmi.android.tv.api.SpiderStats;
 import com.fongmi.android.tv.api.config.VodConfig;
 import com.fongmi.android.tv.bean.Page;
 import com.fongmi.android.tv.bean.Result;
@@ -152,6 +153,12 @@ public class TypeFragment extends BaseFragment implements CustomScroller.Callbac
         if ("1".equals(page) && !mBinding.swipeLayout.isRefreshing()) mBinding.progressLayout.showProgress();
         if (isHome() && "1".equals(page)) setAdapter(getParent().getResult());
         else mViewModel.categoryContent(getKey(), typeId, page, true, mExtends);
+        if (!isHome()) setThreshold(SpiderStats.CATEGORY);
+    }
+
+    private void setThreshold(String method) {
+        int span = mBinding.recycler.getLayoutManager() instanceof GridLayoutManager ? ((GridLayoutManager) mBinding.recycler.getLayoutManager()).getSpanCount() : 1;
+        mScroller.setThreshold(mViewModel.getThreshold(getKey(), method) * span);
     }
 
     private void setAdapter(Result result) {
@@ -200,6 +207,10 @@ public class TypeFragment extends BaseFragment implements CustomScroller.Callbac
         }
     }
 
+    public void refreshImage() {
+        mAdapter.notifyItemRangeChanged(0, mAdapter.getItemCount());
+    }
+
     public void scrollToTop() {
         mBinding.recycler.smoothScrollToPosition(0);
     }
@@ -223,6 +234,12 @@ public class TypeFragment extends BaseFragment implements CustomScroller.Callbac
         getVideo(getTypeId(), page);
     }
 
+    @Override
+    public void onPrefetch(String page) {
+        if (isHome()) return;
+        mViewModel.prefetchCategory(getKey(), getTypeId(), page, true, mExtends);
+    }
+
     @Override
     public void onItemClick(Vod item) {
         if (item.isAction()) {
@@ -563,6 +563,9 @@ public class VodFragment extends BaseFragment implements SiteCallback, FilterCal
             case HISTORY:
                 loadHistory();
                 break;
+            case IMAGE:
+                if (mBinding.pager.getAdapter() != null && mBinding.pager.getAdapter().getCount() > 0) getFragment().refreshImage();
+                break;
         }
     }
 
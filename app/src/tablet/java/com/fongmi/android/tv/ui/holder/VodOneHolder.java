@@ -22,7 +22,7 @@ public class VodOneHolder extends BaseVodHolder {
     @Override
     public void initView(Vod item) {
         binding.name.setText(item.getVodName());
-        binding.site.setText(item.getSiteName());
+        binding.site.setText(item.getSourceName());
         binding.remark.setText(item.getVodRemarks());
         binding.site.setVisibility(item.getSiteVisible());
         binding.remark.setVisibility(item.getRemarkVisible());
@@ -29,7 +29,7 @@ public class VodRectHolder extends BaseVodHolder {
     public void initView(Vod item) {
         binding.name.setText(item.getVodName());
         binding.year.setText(item.getVodYear());
-        binding.site.setText(item.getSiteName());
+        binding.site.setText(item.getSourceName());
         binding.remark.setText(item.getVodRemarks());
         binding.site.setVisibility(item.getSiteVisible());
         binding.name.setVisibility(item.getNameVisible());
@@ -86,6 +86,17 @@ public class Util {
         }
     }
 
+    public static String md5(byte[] data) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest.digest(data)) sb.append(Integer.toString((b & 0xff) + 0x100, 16).substring(1));
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return "";
+        }
+    }
+
     public static String md5(File file) {
         try {
             MessageDigest digest = MessageDigest.getInstance("MD5");
@@ -6,6 +6,8 @@ import java.util.Map;
 public class ZhuToPin {
 
     private static final Map<String, String> map = new HashMap<>();
+    private static final String[] table = new String[0x30];
+    private static final char BASE = '\u3100';
 
     static {
         map.put("ㄅㄧㄝ", "bie");
@@ -430,13 +432,25 @@ public class ZhuToPin {
         map.put("ㄤ", "ang");
         map.put("ㄥ", "eng");
         map.put("ㄦ", "er");
+        for (Map.Entry<String, String> entry : map.entrySet()) if (entry.getKey().length() == 1) table[entry.getKey().charAt(0) - BASE] = entry.getValue();
+    }
+
+    private static String find(char c) {
+        int index = c - BASE;
+        return index >= 0 && index < table.length ? table[index] : null;
+    }
+
+    private static boolean isZhuyin(String text) {
+        for (int i = 0; i < text.length(); i++) if (find(text.charAt(i)) != null) return true;
+        return false;
     }
 
     public static String get(String text) {
         StringBuilder sb = new StringBuilder();
         String[] splits = text.split("↩");
         if (splits.length > 1) findSplit(sb, splits);
-        else findSingle(sb, text);
+        else if (isZhuyin(text)) findSingle(sb, text);
+        else return text;
         return sb.toString();
     }
 
@@ -448,9 +462,10 @@ public class ZhuToPin {
     }
 
     private static void findSingle(StringBuilder sb, String text) {
-        for (char chars : text.toCharArray()) {
-            String pinyin = map.get(String.valueOf(chars));
-            sb.append(pinyin != null ? pinyin : chars);
+        for (int i = 0; i < text.length(); i++) {
+            String pinyin = find(text.charAt(i));
+            if (pinyin != null) sb.append(pinyin);
+            else sb.append(text.charAt(i));
         }
     }
 }
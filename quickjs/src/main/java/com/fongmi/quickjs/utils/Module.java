@@ -13,6 +13,7 @@ import java.util.concurrent.ConcurrentHashMap;
 public class Module {
 
     private final ConcurrentHashMap<String, String> cache;
+    private final ConcurrentHashMap<String, String> ready;
 
     private static class Loader {
         static volatile Module INSTANCE = new Module();
@@ -24,10 +25,24 @@ public class Module {
 
     public Module() {
         this.cache = new ConcurrentHashMap<>();
+        this.ready = new ConcurrentHashMap<>();
+    }
+
+    public void prefetch(String url) {
+        if (!url.startsWith("http") || ready.containsKey(url)) return;
+        String content = request(url);
+        if (!content.isEmpty()) ready.put(url, content);
+    }
+
+    public void clear() {
+        ready.clear();
     }
 
     public String fetch(String name) {
         if (cache.contains(name)) return cache.get(name);
+        String content = ready.remove(name);
+        if (content != null) cache.put(name, content);
+        if (content != null) return content;
         if (name.startsWith("http")) cache.put(name, request(name));
         if (name.startsWith("assets")) cache.put(name, Asset.read(name));
         if (name.startsWith("lib/")) cache.put(name, Asset.read("js/" + name));